@@ -6,38 +6,90 @@ import android.content.pm.PackageInfo;
 import android.content.pm.PackageManager;
 import android.content.res.AssetManager;
 import android.content.res.Resources;
-import android.os.AsyncTask;
+import android.os.Handler;
+import android.os.Looper;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.text.TextUtils;
 
 import java.lang.reflect.Method;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import skin.support.app.SkinActivityLifecycle;
 import skin.support.app.SkinLayoutInflater;
 import skin.support.load.SkinAssetsLoader;
 import skin.support.load.SkinBuildInLoader;
+import skin.support.load.SkinColorTableLoader;
+import skin.support.load.SkinPaletteLoader;
 import skin.support.observe.SkinObservable;
+import skin.support.utils.SkinApkUtils;
+import skin.support.utils.SkinFileUtils;
 import skin.support.utils.SkinPreference;
+import skin.support.content.res.SkinCompatLayer;
+import skin.support.content.res.SkinCompatPalette;
 import skin.support.content.res.SkinCompatResources;
+import skin.support.content.res.SkinCompatScope;
+import skin.support.content.res.SkinCompatState;
 
 public class SkinCompatManager extends SkinObservable {
     public static final int SKIN_LOADER_STRATEGY_NONE = -1;
     public static final int SKIN_LOADER_STRATEGY_ASSETS = 0;
     public static final int SKIN_LOADER_STRATEGY_BUILD_IN = 1;
+    public static final int SKIN_LOADER_STRATEGY_COLOR_TABLE = 2;
+    public static final int SKIN_LOADER_STRATEGY_PALETTE = 3;
+    /**
+     * 启动时恢复皮肤包完成后{@link #notifyUpdateSkin(Object)}的参数. 等待加载完成后创建的界面已使用该皮肤, 观察者可跳过换肤.
+     */
+    public static final Object SKIN_UPDATE_COLD_START = new Object();
     private static volatile SkinCompatManager sInstance;
-    private final Object mLock = new Object();
+    /**
+     * 皮肤加载线程, 同一时间只加载一个皮肤.
+     */
+    private final ExecutorService mLoadExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(@NonNull Runnable r) {
+            Thread thread = new Thread(r, "SkinLoader");
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        }
+    });
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
     private final Context mAppContext;
-    private boolean mLoading = false;
+    /**
+     * 最近一次加载请求, 之前未完成的请求均被取消.
+     */
+    private SkinLoadTask mLatestTask;
+    /**
+     * 最近的皮肤加载报告, 超出{@link #MAX_LOAD_REPORTS}时丢弃最早的.
+     */
+    private static final int MAX_LOAD_REPORTS = 16;
+    private final ArrayDeque<SkinLoadReport> mLoadReports = new ArrayDeque<>(MAX_LOAD_REPORTS);
+    /**
+     * 启动时恢复记录的皮肤包的请求, 第一个Activity创建时等待其完成.
+     */
+    private volatile SkinLoadTask mColdStartTask;
+    private volatile boolean mColdStartAwaited = false;
     private List<SkinLayoutInflater> mInflaters = new ArrayList<>();
     private List<SkinLayoutInflater> mHookInflaters = new ArrayList<>();
     private Map<Integer, SkinLoaderStrategy> mStrategyMap = new HashMap<>();
+    private final SkinPaletteLoader mPaletteLoader = new SkinPaletteLoader();
     private boolean mSkinStatusBarColorEnable = true;
     private boolean mSkinWindowBackgroundColorEnable = true;
+    private boolean mSkinIndexPreloadEnable = false;
+    private boolean mSkinIndexPersistEnable = false;
+    private long mSkinColdStartTimeout = 0;
 
     /**
      * 皮肤包加载监听.
@@ -61,6 +113,18 @@ public class SkinCompatManager extends SkinObservable {
         void onFailed(String errMsg);
     }
 
+    /**
+     * 带加载报告的皮肤包加载监听.
+     */
+    public interface SkinLoaderReportListener extends SkinLoaderListener {
+        /**
+         * 加载结束, 在{@link #onSuccess()}或{@link #onFailed(String)}之后调用.
+         *
+         * @param report 加载报告.
+         */
+        void onReport(SkinLoadReport report);
+    }
+
     /**
      * 皮肤包加载策略.
      */
@@ -87,6 +151,8 @@ public class SkinCompatManager extends SkinObservable {
         /**
          * {@link #SKIN_LOADER_STRATEGY_ASSETS}
          * {@link #SKIN_LOADER_STRATEGY_BUILD_IN}
+         * {@link #SKIN_LOADER_STRATEGY_COLOR_TABLE}
+         * {@link #SKIN_LOADER_STRATEGY_PALETTE}
          *
          * @return 皮肤包加载策略类型.
          */
@@ -135,6 +201,8 @@ public class SkinCompatManager extends SkinObservable {
     private void initLoaderStrategy() {
         mStrategyMap.put(SKIN_LOADER_STRATEGY_ASSETS, new SkinAssetsLoader());
         mStrategyMap.put(SKIN_LOADER_STRATEGY_BUILD_IN, new SkinBuildInLoader());
+        mStrategyMap.put(SKIN_LOADER_STRATEGY_COLOR_TABLE, new SkinColorTableLoader());
+        mStrategyMap.put(SKIN_LOADER_STRATEGY_PALETTE, mPaletteLoader);
     }
 
     /**
@@ -230,16 +298,79 @@ public class SkinCompatManager extends SkinObservable {
     }
 
     /**
-     * 加载记录的皮肤包，一般在Application中初始化换肤框架后调用.
+     * 设置皮肤包加载时, 在后台线程中预先建立完整的资源ID映射表. 换肤时不再需要在UI线程中按名称查找资源.
+     *
+     * @param enable true: 打开; false: 关闭.
      * @return
      */
-    public AsyncTask loadSkin() {
-        String skin = SkinPreference.getInstance().getSkinName();
-        int strategy = SkinPreference.getInstance().getSkinStrategy();
-        if (TextUtils.isEmpty(skin) || strategy == SKIN_LOADER_STRATEGY_NONE) {
-            return null;
+    public SkinCompatManager setSkinIndexPreloadEnable(boolean enable) {
+        mSkinIndexPreloadEnable = enable;
+        return this;
+    }
+
+    public boolean isSkinIndexPreloadEnable() {
+        return mSkinIndexPreloadEnable;
+    }
+
+    /**
+     * 设置将资源ID映射表保存至皮肤包目录. 再次加载同一皮肤包时直接读取, 不再按名称查找资源.
+     * 皮肤包文件或应用版本变化后自动重建.
+     *
+     * @param enable true: 打开; false: 关闭.
+     * @return
+     */
+    public SkinCompatManager setSkinIndexPersistEnable(boolean enable) {
+        mSkinIndexPersistEnable = enable;
+        return this;
+    }
+
+    public boolean isSkinIndexPersistEnable() {
+        return mSkinIndexPersistEnable;
+    }
+
+    /**
+     * 设置启动时等待记录的皮肤包加载完成的最长时间. 第一个Activity创建时最多等待该时间, 加载完成后直接以皮肤资源加载布局,
+     * 无需加载默认资源后再换肤. 超时后按原方式在加载完成后换肤. 配合{@link #setSkinIndexPersistEnable(boolean)}可缩短加载时间.
+     *
+     * @param timeoutMs 等待时间(毫秒), 0表示不等待, 默认为0.
+     * @return
+     */
+    public SkinCompatManager setSkinColdStartTimeout(long timeoutMs) {
+        mSkinColdStartTimeout = timeoutMs;
+        return this;
+    }
+
+    public long getSkinColdStartTimeout() {
+        return mSkinColdStartTimeout;
+    }
+
+    /**
+     * 等待启动时通过{@link #loadSkin()}恢复的皮肤包加载完成, 最长等待{@link #getSkinColdStartTimeout()}.
+     * 在Activity加载布局之前调用, 只有第一次调用会等待.
+     */
+    public void awaitColdStart() {
+        mColdStartAwaited = true;
+        SkinLoadTask task = mColdStartTask;
+        mColdStartTask = null;
+        if (task == null || mSkinColdStartTimeout <= 0) {
+            return;
+        }
+        try {
+            // 只等待后台加载完成, 结果仍在主线程中通知.
+            task.get(mSkinColdStartTimeout, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // 超时后加载完成时再换肤.
+        } catch (Exception e) {
+            e.printStackTrace();
         }
-        return loadSkin(skin, null, strategy);
+    }
+
+    /**
+     * 加载记录的皮肤包，一般在Application中初始化换肤框架后调用.
+     * @return
+     */
+    public Future<String> loadSkin() {
+        return loadSkin((SkinLoaderListener) null);
     }
 
     /**
@@ -248,22 +379,29 @@ public class SkinCompatManager extends SkinObservable {
      * @param listener 皮肤包加载监听.
      * @return
      */
-    public AsyncTask loadSkin(SkinLoaderListener listener) {
+    public Future<String> loadSkin(SkinLoaderListener listener) {
         String skin = SkinPreference.getInstance().getSkinName();
         int strategy = SkinPreference.getInstance().getSkinStrategy();
         if (TextUtils.isEmpty(skin) || strategy == SKIN_LOADER_STRATEGY_NONE) {
             return null;
         }
-        return loadSkin(skin, listener, strategy);
+        Future<String> task = loadSkin(skin, listener, strategy);
+        if (task instanceof SkinLoadTask) {
+            ((SkinLoadTask) task).mColdStart = true;
+        }
+        if (!mColdStartAwaited) {
+            mColdStartTask = (SkinLoadTask) task;
+        }
+        return task;
     }
 
     @Deprecated
-    public AsyncTask loadSkin(String skinName) {
+    public Future<String> loadSkin(String skinName) {
         return loadSkin(skinName, null);
     }
 
     @Deprecated
-    public AsyncTask loadSkin(String skinName, final SkinLoaderListener listener) {
+    public Future<String> loadSkin(String skinName, final SkinLoaderListener listener) {
         return loadSkin(skinName, listener, SKIN_LOADER_STRATEGY_ASSETS);
     }
 
@@ -274,82 +412,395 @@ public class SkinCompatManager extends SkinObservable {
      * @param strategy 皮肤包加载策略.
      * @return
      */
-    public AsyncTask loadSkin(String skinName, int strategy) {
+    public Future<String> loadSkin(String skinName, int strategy) {
         return loadSkin(skinName, null, strategy);
     }
 
     /**
-     * 加载皮肤包.
+     * 加载皮肤包. 连续调用时只应用最后一次请求的皮肤, 之前尚未完成的请求被取消并回调{@link SkinLoaderListener#onFailed(String)}.
      *
      * @param skinName 皮肤包名称.
      * @param listener 皮肤包加载监听.
      * @param strategy 皮肤包加载策略.
+     * @return 加载结果, 成功时为皮肤包名称, 失败时为null.
+     */
+    public Future<String> loadSkin(String skinName, SkinLoaderListener listener, int strategy) {
+        SkinLoadTask task = new SkinLoadTask(skinName, listener, mStrategyMap.get(strategy),
+                new SkinLoadReport(skinName, strategy));
+        synchronized (this) {
+            if (mLatestTask != null) {
+                // 正在执行的加载不中断, 完成后丢弃结果.
+                mLatestTask.cancel(false);
+            }
+            mLatestTask = task;
+        }
+        if (listener != null) {
+            listener.onStart();
+        }
+        mLoadExecutor.execute(task);
+        return task;
+    }
+
+    /**
+     * 注册调色板皮肤, 之后通过{@link #loadSkin(String, SkinLoaderListener, int)}及{@link #SKIN_LOADER_STRATEGY_PALETTE}切换,
+     * 切换时无需读取文件. 调色板同时保存到皮肤目录中, 应用重启后{@link #loadSkin()}可直接恢复.
+     * 重新注册已加载的调色板时移除旧的缓存, 如为当前皮肤则重新加载并刷新界面.
+     *
+     * @param skinName 皮肤名称.
+     * @param palette  调色板.
+     * @return
+     */
+    public SkinCompatManager registerPalette(final String skinName, SkinCompatPalette palette) {
+        final byte[] data = palette.toByteArray(mAppContext);
+        if (mPaletteLoader.putPalette(mAppContext, skinName, data)) {
+            mLoadExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    mPaletteLoader.savePalette(mAppContext, skinName, data);
+                    // 在加载线程中移除, 排在之前提交的加载之后, 避免旧调色板重新放回缓存.
+                    evictSkin(skinName, SKIN_LOADER_STRATEGY_PALETTE);
+                    mMainHandler.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            SkinPreference preference = SkinPreference.getInstance();
+                            if (skinName.equals(preference.getSkinName())
+                                    && preference.getSkinStrategy() == SKIN_LOADER_STRATEGY_PALETTE) {
+                                loadSkin(skinName, null, SKIN_LOADER_STRATEGY_PALETTE);
+                            }
+                        }
+                    });
+                }
+            });
+        }
+        return this;
+    }
+
+    /**
+     * 在后台预加载皮肤包, 不应用到界面. 之后调用{@link #loadSkin(String, SkinLoaderListener, int)}切换到该皮肤时无需重新加载.
+     *
+     * @param skinName 皮肤包名称.
+     * @param strategy 皮肤包加载策略.
+     * @return 预加载结果.
+     */
+    public Future<Boolean> preloadSkin(final String skinName, int strategy) {
+        final SkinLoaderStrategy loaderStrategy = mStrategyMap.get(strategy);
+        FutureTask<Boolean> task = new FutureTask<>(new Callable<Boolean>() {
+            @Override
+            public Boolean call() {
+                return SkinCompatResources.getInstance().prepareSkin(skinName, loaderStrategy);
+            }
+        });
+        mLoadExecutor.execute(task);
+        return task;
+    }
+
+    /**
+     * 创建使用指定皮肤的作用域, 在作用域中加载的布局使用该皮肤, 不影响全局皮肤及已显示的界面. 可用于生成皮肤预览. 需在后台线程中调用.
+     * 皮肤包在皮肤加载线程中加载, 与切换皮肤共用复制的临时文件, 不能同时进行.
+     *
+     * @param skinName 皮肤包名称, 为空时使用应用默认皮肤.
+     * @param strategy 皮肤包加载策略.
+     * @return 加载失败时返回null.
+     * @see SkinCompatScope
+     */
+    public SkinCompatScope newSkinScope(final String skinName, int strategy) {
+        final SkinLoaderStrategy loaderStrategy = mStrategyMap.get(strategy);
+        FutureTask<SkinCompatScope> task = new FutureTask<>(new Callable<SkinCompatScope>() {
+            @Override
+            public SkinCompatScope call() {
+                return SkinCompatResources.getInstance().newSkinScope(skinName, loaderStrategy);
+            }
+        });
+        mLoadExecutor.execute(task);
+        try {
+            return task.get();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * 设置已加载皮肤的缓存大小, 默认最多3个皮肤, 不超过最大可用内存的1/8.
+     *
+     * @param maxCount 最多缓存的皮肤数.
+     * @param maxBytes 内存上限(字节).
+     * @return
+     */
+    public SkinCompatManager setSkinPoolSize(int maxCount, long maxBytes) {
+        SkinCompatResources.getInstance().setSkinStatePoolSize(maxCount, maxBytes);
+        return this;
+    }
+
+    /**
+     * 移除已加载皮肤的缓存, 下次切换到该皮肤时重新加载. 不影响当前皮肤.
+     *
+     * @param skinName 皮肤包名称.
+     * @param strategy 皮肤包加载策略.
      * @return
      */
-    public AsyncTask loadSkin(String skinName, SkinLoaderListener listener, int strategy) {
-        return new SkinLoadTask(listener, mStrategyMap.get(strategy)).execute(skinName);
+    public SkinCompatManager evictSkin(String skinName, int strategy) {
+        SkinCompatResources.getInstance().evict(skinName, mStrategyMap.get(strategy));
+        return this;
+    }
+
+    /**
+     * @return 切换皮肤时命中已加载皮肤的次数.
+     */
+    public int getSkinPoolHitCount() {
+        return SkinCompatResources.getInstance().getSkinStatePoolHitCount();
     }
 
-    private class SkinLoadTask extends AsyncTask<String, Void, String> {
+    /**
+     * @return 切换皮肤时需要重新加载皮肤包的次数.
+     */
+    public int getSkinPoolMissCount() {
+        return SkinCompatResources.getInstance().getSkinStatePoolMissCount();
+    }
+
+    /**
+     * @return 最近的皮肤加载报告, 按时间顺序排列, 最多保留16条.
+     */
+    public List<SkinLoadReport> getSkinLoadReports() {
+        synchronized (mLoadReports) {
+            return new ArrayList<>(mLoadReports);
+        }
+    }
+
+    private void addLoadReport(SkinLoadReport report) {
+        synchronized (mLoadReports) {
+            if (mLoadReports.size() == MAX_LOAD_REPORTS) {
+                mLoadReports.pollFirst();
+            }
+            mLoadReports.addLast(report);
+        }
+    }
+
+    /**
+     * 皮肤加载过程, 在皮肤加载线程中执行. 只加载不应用, 加载完成时仍为最近一次请求才应用到界面.
+     */
+    private class SkinLoadCallable implements Callable<String> {
+        private final String mSkinName;
+        private final SkinLoaderStrategy mStrategy;
+        private final SkinLoadReport mReport;
+        private SkinLoadTask mTask;
+
+        SkinLoadCallable(String skinName, SkinLoaderStrategy strategy, SkinLoadReport report) {
+            mSkinName = skinName;
+            mStrategy = strategy;
+            mReport = report;
+        }
+
+        @Override
+        public String call() {
+            if (!mTask.onLoadStart()) {
+                return null;
+            }
+            SkinLoadReport.begin(mReport);
+            try {
+                return load();
+            } finally {
+                SkinLoadReport.end();
+                mTask.onLoadEnd();
+            }
+        }
+
+        private String load() {
+            SkinCompatResources resources = SkinCompatResources.getInstance();
+            SkinCompatState state = null;
+            boolean success = false;
+            try {
+                if (TextUtils.isEmpty(mSkinName)) {
+                    success = true;
+                } else {
+                    state = resources.obtainPooledSkin(mSkinName, mStrategy);
+                    if (state != null) {
+                        mReport.setPoolHit();
+                    } else {
+                        state = resources.prepareSkinState(mSkinName, mStrategy);
+                    }
+                    success = state != null;
+                }
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+            synchronized (SkinCompatManager.this) {
+                if (mTask.isCancelled() || mLatestTask != mTask) {
+                    // 已有新的加载请求, 丢弃本次结果.
+                    return null;
+                }
+                // skinName 为""或加载失败时，恢复默认皮肤
+                if (state != null) {
+                    resources.applySkinState(state);
+                } else {
+                    resources.reset();
+                }
+            }
+            return success ? mSkinName : null;
+        }
+    }
+
+    private class SkinLoadTask extends FutureTask<String> {
         private final SkinLoaderListener mListener;
         private final SkinLoaderStrategy mStrategy;
+        private final SkinLoadReport mReport;
+        private final Object mRunLock = new Object();
+        private boolean mRunning;
+        private boolean mPosted;
+        /**
+         * 启动时恢复皮肤包, 见{@link #loadSkin(SkinLoaderListener)}.
+         */
+        private volatile boolean mColdStart;
 
-        SkinLoadTask(@Nullable SkinLoaderListener listener, @NonNull SkinLoaderStrategy strategy) {
+        SkinLoadTask(String skinName, @Nullable SkinLoaderListener listener, @NonNull SkinLoaderStrategy strategy,
+                     SkinLoadReport report) {
+            this(new SkinLoadCallable(skinName, strategy, report), listener, strategy, report);
+        }
+
+        private SkinLoadTask(SkinLoadCallable callable, SkinLoaderListener listener, SkinLoaderStrategy strategy,
+                             SkinLoadReport report) {
+            super(callable);
+            callable.mTask = this;
             mListener = listener;
             mStrategy = strategy;
+            mReport = report;
         }
 
-        protected void onPreExecute() {
-            if (mListener != null) {
-                mListener.onStart();
+        /**
+         * @return 已取消时返回false, 不再加载.
+         */
+        boolean onLoadStart() {
+            synchronized (mRunLock) {
+                if (isCancelled()) {
+                    return false;
+                }
+                mRunning = true;
+                return true;
+            }
+        }
+
+        void onLoadEnd() {
+            synchronized (mRunLock) {
+                mRunning = false;
+                // 加载过程中被取消时, done()不回调结果, 在加载线程结束后回调.
+                if (isCancelled()) {
+                    postExecuteLocked();
+                }
             }
         }
 
         @Override
-        protected String doInBackground(String... params) {
-            synchronized (mLock) {
-                while (mLoading) {
-                    try {
-                        mLock.wait();
-                    } catch (InterruptedException e) {
-                        e.printStackTrace();
-                    }
+        protected void done() {
+            synchronized (mRunLock) {
+                if (!mRunning) {
+                    postExecuteLocked();
                 }
-                mLoading = true;
             }
-            try {
-                if (params.length == 1) {
-                    if (TextUtils.isEmpty(params[0])) {
-                        SkinCompatResources.getInstance().reset();
-                        return params[0];
-                    }
-                    if (!TextUtils.isEmpty(
-                            mStrategy.loadSkinInBackground(mAppContext, params[0]))) {
-                        return params[0];
-                    }
+        }
+
+        private void postExecuteLocked() {
+            if (mPosted) {
+                return;
+            }
+            mPosted = true;
+            mMainHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    onPostExecute();
+                }
+            });
+        }
+
+        private void onPostExecute() {
+            synchronized (SkinCompatManager.this) {
+                if (mLatestTask == this) {
+                    mLatestTask = null;
                 }
+            }
+            if (isCancelled()) {
+                mReport.finish(false, "皮肤加载已取消");
+                if (mListener != null) mListener.onFailed("皮肤加载已取消");
+                deliverReport();
+                return;
+            }
+            String skinName = null;
+            try {
+                skinName = get();
             } catch (Exception e) {
                 e.printStackTrace();
             }
-            SkinCompatResources.getInstance().reset();
-            return null;
+            if (skinName != null) {
+                SkinPreference.getInstance().setSkinName(skinName).setSkinStrategy(mStrategy.getType()).commitEditor();
+                SkinLoadReport.begin(mReport);
+                long start = SkinLoadReport.startPhase();
+                try {
+                    notifyUpdateSkin(mColdStart ? SKIN_UPDATE_COLD_START : null);
+                } finally {
+                    SkinLoadReport.endPhase(SkinLoadReport.PHASE_NOTIFY, start);
+                    SkinLoadReport.end();
+                }
+                mReport.finish(true, null);
+                if (mListener != null) mListener.onSuccess();
+            } else {
+                SkinPreference.getInstance().setSkinName("").setSkinStrategy(SKIN_LOADER_STRATEGY_NONE).commitEditor();
+                mReport.finish(false, "皮肤资源获取失败");
+                if (mListener != null) mListener.onFailed("皮肤资源获取失败");
+            }
+            deliverReport();
         }
 
-        protected void onPostExecute(String skinName) {
-            synchronized (mLock) {
-                // skinName 为""时，恢复默认皮肤
-                if (skinName != null) {
-                    SkinPreference.getInstance().setSkinName(skinName).setSkinStrategy(mStrategy.getType()).commitEditor();
-                    notifyUpdateSkin();
-                    if (mListener != null) mListener.onSuccess();
-                } else {
-                    SkinPreference.getInstance().setSkinName("").setSkinStrategy(SKIN_LOADER_STRATEGY_NONE).commitEditor();
-                    if (mListener != null) mListener.onFailed("皮肤资源获取失败");
+        private void deliverReport() {
+            addLoadReport(mReport);
+            if (mListener instanceof SkinLoaderReportListener) {
+                ((SkinLoaderReportListener) mListener).onReport(mReport);
+            }
+        }
+    }
+
+    /**
+     * 在皮肤加载线程中应用叠加层, 完成后刷新界面. 与皮肤加载按请求顺序执行, 不会覆盖之后加载的皮肤.
+     *
+     * @param overlays 叠加层, 第一个为最上层. 为空时移除所有叠加层.
+     * @return 应用结果, 期间切换了皮肤时为false.
+     */
+    public Future<Boolean> setSkinOverlays(List<SkinCompatLayer> overlays) {
+        final List<SkinCompatLayer> layers = overlays == null ? null : new ArrayList<>(overlays);
+        FutureTask<Boolean> task = new FutureTask<>(new Callable<Boolean>() {
+            @Override
+            public Boolean call() {
+                if (!SkinCompatResources.getInstance().setSkinOverlays(layers)) {
+                    return false;
                 }
-                mLoading = false;
-                mLock.notifyAll();
+                mMainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        notifyUpdateSkin();
+                    }
+                });
+                return true;
             }
+        });
+        mLoadExecutor.execute(task);
+        return task;
+    }
+
+    /**
+     * 加载皮肤叠加层, 需在后台线程中调用. 通过{@link #setSkinOverlays(List)}应用.
+     *
+     * @param skinPkgPath sdcard中叠加层皮肤包路径.
+     * @return 加载失败时返回null.
+     */
+    @Nullable
+    public SkinCompatLayer loadSkinOverlay(String skinPkgPath) {
+        if (!SkinFileUtils.isFileExists(skinPkgPath)) {
+            return null;
         }
+        String pkgName = getSkinPackageName(skinPkgPath);
+        Resources resources = getSkinResources(skinPkgPath);
+        if (resources == null || TextUtils.isEmpty(pkgName)) {
+            return null;
+        }
+        return new SkinCompatLayer(resources, pkgName);
     }
 
     /**
@@ -359,9 +810,13 @@ public class SkinCompatManager extends SkinObservable {
      * @return
      */
     public String getSkinPackageName(String skinPkgPath) {
+        String pkgName = SkinApkUtils.getPackageName(skinPkgPath);
+        if (pkgName != null) {
+            return pkgName;
+        }
         PackageManager mPm = mAppContext.getPackageManager();
-        PackageInfo info = mPm.getPackageArchiveInfo(skinPkgPath, PackageManager.GET_ACTIVITIES);
-        return info.packageName;
+        PackageInfo info = mPm.getPackageArchiveInfo(skinPkgPath, 0);
+        return info == null ? null : info.packageName;
     }
 
     /**
@@ -0,0 +1,212 @@
+package skin.support;
+
+import java.util.Locale;
+
+/**
+ * 皮肤加载报告, 记录一次加载各阶段的耗时, 复制字节数, 缓存命中情况及刷新的View数.
+ * <p>
+ * 加载线程及主线程通过{@link #current()}获取当前正在记录的报告, 加载策略可调用{@link #endPhase(int, long)}等方法记录自定义阶段.
+ */
+public final class SkinLoadReport {
+    /**
+     * 从assets复制皮肤包.
+     */
+    public static final int PHASE_COPY = 0;
+    /**
+     * 解析皮肤包包名.
+     */
+    public static final int PHASE_PARSE = 1;
+    /**
+     * 创建皮肤包{@link android.content.res.Resources}.
+     */
+    public static final int PHASE_RESOURCES = 2;
+    /**
+     * 建立或读取资源索引.
+     */
+    public static final int PHASE_INDEX = 3;
+    /**
+     * 通知观察者, 包含{@link #PHASE_APPLY}.
+     */
+    public static final int PHASE_NOTIFY = 4;
+    /**
+     * 刷新View.
+     */
+    public static final int PHASE_APPLY = 5;
+    private static final int PHASE_COUNT = 6;
+    private static final String[] PHASE_NAMES = {"copy", "parse", "resources", "index", "notify", "apply"};
+
+    private static final ThreadLocal<SkinLoadReport> sCurrent = new ThreadLocal<>();
+
+    private final String mSkinName;
+    private final int mStrategy;
+    private final long mStartTime = System.nanoTime();
+    private final long[] mPhaseNanos = new long[PHASE_COUNT];
+    private long mTotalNanos;
+    private long mBytesCopied;
+    private boolean mCopySkipped;
+    private boolean mPoolHit;
+    private boolean mIndexRestored;
+    private int mViewsTouched;
+    private boolean mSuccess;
+    private String mErrMsg;
+
+    SkinLoadReport(String skinName, int strategy) {
+        mSkinName = skinName;
+        mStrategy = strategy;
+    }
+
+    /**
+     * @return 当前线程正在记录的报告, 不在加载过程中时返回null.
+     */
+    public static SkinLoadReport current() {
+        return sCurrent.get();
+    }
+
+    static void begin(SkinLoadReport report) {
+        sCurrent.set(report);
+    }
+
+    static void end() {
+        sCurrent.remove();
+    }
+
+    /**
+     * @return 阶段开始时间, 传给{@link #endPhase(int, long)}.
+     */
+    public static long startPhase() {
+        return System.nanoTime();
+    }
+
+    /**
+     * 累加阶段耗时.
+     *
+     * @param phase 阶段, 如{@link #PHASE_COPY}.
+     * @param start {@link #startPhase()}的返回值.
+     */
+    public static void endPhase(int phase, long start) {
+        SkinLoadReport report = sCurrent.get();
+        if (report != null) {
+            report.mPhaseNanos[phase] += System.nanoTime() - start;
+        }
+    }
+
+    public static void recordBytesCopied(long bytes) {
+        SkinLoadReport report = sCurrent.get();
+        if (report != null) {
+            report.mBytesCopied += bytes;
+        }
+    }
+
+    public static void recordCopySkipped() {
+        SkinLoadReport report = sCurrent.get();
+        if (report != null) {
+            report.mCopySkipped = true;
+        }
+    }
+
+    public static void recordIndexRestored() {
+        SkinLoadReport report = sCurrent.get();
+        if (report != null) {
+            report.mIndexRestored = true;
+        }
+    }
+
+    public static void recordViewsTouched(int count) {
+        SkinLoadReport report = sCurrent.get();
+        if (report != null) {
+            report.mViewsTouched += count;
+        }
+    }
+
+    void setPoolHit() {
+        mPoolHit = true;
+    }
+
+    void finish(boolean success, String errMsg) {
+        mSuccess = success;
+        mErrMsg = errMsg;
+        mTotalNanos = System.nanoTime() - mStartTime;
+    }
+
+    public String getSkinName() {
+        return mSkinName;
+    }
+
+    public int getStrategy() {
+        return mStrategy;
+    }
+
+    /**
+     * @param phase 阶段, 如{@link #PHASE_COPY}.
+     * @return 阶段耗时(纳秒), 未经过该阶段时为0.
+     */
+    public long getPhaseNanos(int phase) {
+        return mPhaseNanos[phase];
+    }
+
+    /**
+     * @return 从请求加载到通知完成的总耗时(纳秒), 包含排队时间.
+     */
+    public long getTotalNanos() {
+        return mTotalNanos;
+    }
+
+    public long getBytesCopied() {
+        return mBytesCopied;
+    }
+
+    /**
+     * @return assets中的皮肤包未变化, 跳过复制.
+     */
+    public boolean isCopySkipped() {
+        return mCopySkipped;
+    }
+
+    /**
+     * @return 命中已加载皮肤缓存.
+     */
+    public boolean isPoolHit() {
+        return mPoolHit;
+    }
+
+    /**
+     * @return 从文件中读取了资源索引.
+     */
+    public boolean isIndexRestored() {
+        return mIndexRestored;
+    }
+
+    public int getViewsTouched() {
+        return mViewsTouched;
+    }
+
+    public boolean isSuccess() {
+        return mSuccess;
+    }
+
+    /**
+     * @return 加载失败时的错误信息.
+     */
+    public String getErrMsg() {
+        return mErrMsg;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("SkinLoadReport{")
+                .append(mSkinName).append(", strategy=").append(mStrategy)
+                .append(mSuccess ? ", success" : ", failed: " + mErrMsg)
+                .append(String.format(Locale.US, ", total=%.2fms", mTotalNanos / 1e6));
+        for (int i = 0; i < PHASE_COUNT; i++) {
+            if (mPhaseNanos[i] > 0) {
+                sb.append(String.format(Locale.US, ", %s=%.2fms", PHASE_NAMES[i], mPhaseNanos[i] / 1e6));
+            }
+        }
+        return sb.append(", bytesCopied=").append(mBytesCopied)
+                .append(", copySkipped=").append(mCopySkipped)
+                .append(", poolHit=").append(mPoolHit)
+                .append(", indexRestored=").append(mIndexRestored)
+                .append(", viewsTouched=").append(mViewsTouched)
+                .append('}').toString();
+    }
+}
@@ -58,6 +58,10 @@ public class SkinActivityLifecycle implements Application.ActivityLifecycleCallb
             observer = new SkinObserver() {
                 @Override
                 public void updateSkin(SkinObservable observable, Object o) {
+                    if (!getSkinDelegate(activity).checkSkinGeneration()
+                            && o == SkinCompatManager.SKIN_UPDATE_COLD_START) {
+                        return;
+                    }
                     updateStatusBarColor(activity);
                     updateWindowBackground(activity);
                     getSkinDelegate(activity).applySkin();
@@ -89,6 +93,7 @@ public class SkinActivityLifecycle implements Application.ActivityLifecycleCallb
 
     @Override
     public void onActivityCreated(Activity activity, Bundle savedInstanceState) {
+        SkinCompatManager.getInstance().awaitColdStart();
         LayoutInflater layoutInflater = activity.getLayoutInflater();
         try {
             Field field = LayoutInflater.class.getDeclaredField("mFactorySet");
@@ -24,6 +24,7 @@ public class SkinCompatActivity extends AppCompatActivity implements SkinObserve
 
     @Override
     protected void onCreate(@Nullable Bundle savedInstanceState) {
+        SkinCompatManager.getInstance().awaitColdStart();
         LayoutInflaterCompat.setFactory(getLayoutInflater(), getSkinDelegate());
         super.onCreate(savedInstanceState);
         updateStatusBarColor();
@@ -80,6 +81,10 @@ public class SkinCompatActivity extends AppCompatActivity implements SkinObserve
 
     @Override
     public void updateSkin(SkinObservable observable, Object o) {
+        if (!getSkinDelegate().checkSkinGeneration()
+                && o == SkinCompatManager.SKIN_UPDATE_COLD_START) {
+            return;
+        }
         updateStatusBarColor();
         updateWindowBackground();
         getSkinDelegate().applySkin();
@@ -16,6 +16,9 @@ import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.List;
 
+import skin.support.SkinLoadReport;
+import skin.support.content.res.SkinCompatResources;
+import skin.support.content.res.SkinCompatScope;
 import skin.support.widget.SkinCompatSupportable;
 
 /**
@@ -26,9 +29,34 @@ public class SkinCompatDelegate implements LayoutInflaterFactory {
     private final Activity mActivity;
     private SkinCompatViewInflater mSkinCompatViewInflater;
     private List<WeakReference<SkinCompatSupportable>> mSkinHelpers = new ArrayList<>();
+    /**
+     * 已应用到界面的皮肤版本.
+     */
+    private int mSkinGeneration;
 
     private SkinCompatDelegate(Activity activity) {
         mActivity = activity;
+        mSkinGeneration = getCurrentSkinGeneration();
+    }
+
+    /**
+     * 记录当前皮肤已应用到界面. 创建时的皮肤视为已应用, 启动时等待皮肤加载完成后无需再次换肤.
+     * 只用于跳过{@link skin.support.SkinCompatManager#SKIN_UPDATE_COLD_START}通知, 其他通知总是换肤.
+     *
+     * @return 当前皮肤已应用过时返回false.
+     */
+    public boolean checkSkinGeneration() {
+        int generation = getCurrentSkinGeneration();
+        if (generation == mSkinGeneration) {
+            return false;
+        }
+        mSkinGeneration = generation;
+        return true;
+    }
+
+    private static int getCurrentSkinGeneration() {
+        SkinCompatResources resources = SkinCompatResources.getInstance();
+        return resources == null ? 0 : resources.getSkinState().getGeneration();
     }
 
     @Override
@@ -39,7 +67,8 @@ public class SkinCompatDelegate implements LayoutInflaterFactory {
             view = createView(parent, name, context, attrs);
         }
 
-        if (view instanceof SkinCompatSupportable) {
+        // 皮肤作用域中加载的预览使用作用域的皮肤, 可能在后台线程中, 不随界面换肤.
+        if (view instanceof SkinCompatSupportable && SkinCompatScope.current() == null) {
             mSkinHelpers.add(new WeakReference<>((SkinCompatSupportable) view));
         }
 
@@ -62,14 +91,21 @@ public class SkinCompatDelegate implements LayoutInflaterFactory {
                            @NonNull AttributeSet attrs) {
         final boolean isPre21 = Build.VERSION.SDK_INT < 21;
 
-        if (mSkinCompatViewInflater == null) {
-            mSkinCompatViewInflater = new SkinCompatViewInflater();
+        SkinCompatViewInflater inflater;
+        if (SkinCompatScope.current() != null) {
+            // 作用域可能在后台线程中, 不共用界面的构造参数.
+            inflater = new SkinCompatViewInflater();
+        } else {
+            if (mSkinCompatViewInflater == null) {
+                mSkinCompatViewInflater = new SkinCompatViewInflater();
+            }
+            inflater = mSkinCompatViewInflater;
         }
 
         // We only want the View to inherit its context if we're running pre-v21
         final boolean inheritContext = isPre21 && shouldInheritContext((ViewParent) parent);
 
-        return mSkinCompatViewInflater.createView(parent, name, context, attrs, inheritContext,
+        return inflater.createView(parent, name, context, attrs, inheritContext,
                 isPre21, /* Only read android:theme pre-L (L+ handles this anyway) */
                 true, /* Read read app:theme as a fallback at all times for legacy reasons */
                 VectorEnabledTintResources.shouldBeUsed() /* Only tint wrap the context if enabled */
@@ -107,11 +143,16 @@ public class SkinCompatDelegate implements LayoutInflaterFactory {
 
     public void applySkin() {
         if (mSkinHelpers != null && !mSkinHelpers.isEmpty()) {
+            long start = SkinLoadReport.startPhase();
+            int count = 0;
             for (WeakReference ref : mSkinHelpers) {
                 if (ref != null && ref.get() != null) {
                     ((SkinCompatSupportable) ref.get()).applySkin();
+                    count++;
                 }
             }
+            SkinLoadReport.recordViewsTouched(count);
+            SkinLoadReport.endPhase(SkinLoadReport.PHASE_APPLY, start);
         }
     }
 }
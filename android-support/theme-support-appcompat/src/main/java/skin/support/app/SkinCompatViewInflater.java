@@ -6,7 +6,6 @@ import android.content.res.TypedArray;
 import android.os.Build;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
-import android.support.v4.util.ArrayMap;
 import android.support.v4.view.ViewCompat;
 import android.support.v7.appcompat.R;
 import android.support.v7.view.ContextThemeWrapper;
@@ -19,6 +18,7 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import skin.support.SkinCompatManager;
 import skin.support.view.menu.SkinCompatActionMenuItemView;
@@ -65,7 +65,7 @@ public class SkinCompatViewInflater {
     private static final String LOG_TAG = "SkinCompatViewInflater";
 
     private static final Map<String, Constructor<? extends View>> sConstructorMap
-            = new ArrayMap<>();
+            = new ConcurrentHashMap<>();
 
     private final Object[] mConstructorArgs = new Object[2];
 
@@ -0,0 +1,210 @@
+package skin.support.content.res;
+
+import android.content.Context;
+import android.content.res.ColorStateList;
+import android.content.res.Resources;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * 颜色表皮肤. 只替换颜色资源, 无需{@link android.content.res.AssetManager}及{@link Resources}.
+ * <p>
+ * 文件格式(大端):
+ * <pre>
+ * magic(int) version(int) flags(int) count(int)
+ * count * entry:
+ *     key: flags包含{@link #FLAG_NAME_KEYS}时为 length(short) + 资源名(UTF-8), 否则为应用资源ID(int)
+ *     defaultColor(int)
+ *     stateCount(int), 为0时表示单一颜色
+ *     stateCount * [ stateSetLength(int) stateSet(int * stateSetLength) color(int) ]
+ * </pre>
+ * 以资源ID为key时需按升序排列, 读取时只建立 资源ID -> 偏移 的索引, 颜色值在使用时从文件映射中读取.
+ */
+public final class SkinCompatColorTable {
+    static final int MAGIC = 0x534b4354;
+    static final int VERSION = 1;
+    /**
+     * 以资源名为key, 应用资源ID变化后仍可使用.
+     */
+    public static final int FLAG_NAME_KEYS = 1;
+
+    private final ByteBuffer mBuffer;
+    private final int[] mKeys;
+    private final int[] mOffsets;
+
+    private SkinCompatColorTable(ByteBuffer buffer, int[] keys, int[] offsets) {
+        mBuffer = buffer;
+        mKeys = keys;
+        mOffsets = offsets;
+    }
+
+    /**
+     * 通过文件映射读取颜色表.
+     *
+     * @return 文件不存在或格式错误时返回null.
+     */
+    public static SkinCompatColorTable read(Context context, File file) {
+        if (!file.isFile()) {
+            return null;
+        }
+        RandomAccessFile raf = null;
+        try {
+            raf = new RandomAccessFile(file, "r");
+            FileChannel channel = raf.getChannel();
+            // 映射在通道关闭后仍然有效.
+            return read(context, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        } finally {
+            if (raf != null) {
+                try {
+                    raf.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    /**
+     * 从内存中读取颜色表.
+     *
+     * @return 格式错误时返回null.
+     */
+    public static SkinCompatColorTable read(Context context, byte[] data) {
+        return read(context, ByteBuffer.wrap(data));
+    }
+
+    private static SkinCompatColorTable read(Context context, ByteBuffer buffer) {
+        try {
+            buffer.order(ByteOrder.BIG_ENDIAN);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return null;
+            }
+            int flags = buffer.getInt();
+            int count = buffer.getInt();
+            if (count < 0) {
+                return null;
+            }
+            boolean nameKeys = (flags & FLAG_NAME_KEYS) != 0;
+            Resources resources = context.getResources();
+            String pkgName = context.getPackageName();
+            int[] keys = new int[count];
+            int[] offsets = new int[count];
+            int size = 0;
+            boolean sorted = true;
+            for (int i = 0; i < count; i++) {
+                int key;
+                if (nameKeys) {
+                    byte[] name = new byte[buffer.getShort() & 0xffff];
+                    buffer.get(name);
+                    key = resources.getIdentifier(new String(name, "UTF-8"), "color", pkgName);
+                } else {
+                    key = buffer.getInt();
+                }
+                int offset = buffer.position();
+                skipEntry(buffer);
+                if (key != 0) {
+                    if (size > 0 && key <= keys[size - 1]) {
+                        sorted = false;
+                    }
+                    keys[size] = key;
+                    offsets[size] = offset;
+                    size++;
+                }
+            }
+            if (size < count) {
+                keys = Arrays.copyOf(keys, size);
+                offsets = Arrays.copyOf(offsets, size);
+            }
+            if (!sorted) {
+                sort(keys, offsets);
+            }
+            return new SkinCompatColorTable(buffer, keys, offsets);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    private static void skipEntry(ByteBuffer buffer) {
+        buffer.getInt();
+        int stateCount = buffer.getInt();
+        for (int i = 0; i < stateCount; i++) {
+            int stateSetLength = buffer.getInt();
+            buffer.position(buffer.position() + stateSetLength * 4 + 4);
+        }
+    }
+
+    /**
+     * 按资源ID排序, 重复的资源ID以后出现的为准.
+     */
+    private static void sort(int[] keys, int[] offsets) {
+        long[] pairs = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            pairs[i] = ((long) keys[i] << 32) | (i & 0xffffffffL);
+        }
+        Arrays.sort(pairs);
+        int[] sortedOffsets = new int[offsets.length];
+        for (int i = 0; i < pairs.length; i++) {
+            keys[i] = (int) (pairs[i] >>> 32);
+            sortedOffsets[i] = offsets[(int) pairs[i]];
+        }
+        System.arraycopy(sortedOffsets, 0, offsets, 0, offsets.length);
+    }
+
+    /**
+     * @param resId 应用资源ID.
+     * @return 颜色表中不存在时返回负数.
+     */
+    public int indexOf(int resId) {
+        int index = Arrays.binarySearch(mKeys, resId);
+        // 重复的资源ID取最后一个.
+        while (index >= 0 && index + 1 < mKeys.length && mKeys[index + 1] == resId) {
+            index++;
+        }
+        return index;
+    }
+
+    public int size() {
+        return mKeys.length;
+    }
+
+    public int getColor(int index) {
+        return mBuffer.getInt(mOffsets[index]);
+    }
+
+    public ColorStateList getColorStateList(int index) {
+        int offset = mOffsets[index];
+        int defaultColor = mBuffer.getInt(offset);
+        int stateCount = mBuffer.getInt(offset + 4);
+        if (stateCount == 0) {
+            return ColorStateList.valueOf(defaultColor);
+        }
+        offset += 8;
+        // 最后追加空状态, 对应默认颜色.
+        int[][] states = new int[stateCount + 1][];
+        int[] colors = new int[stateCount + 1];
+        states[stateCount] = new int[0];
+        colors[stateCount] = defaultColor;
+        for (int i = 0; i < stateCount; i++) {
+            int stateSetLength = mBuffer.getInt(offset);
+            offset += 4;
+            int[] stateSet = new int[stateSetLength];
+            for (int j = 0; j < stateSetLength; j++) {
+                stateSet[j] = mBuffer.getInt(offset);
+                offset += 4;
+            }
+            states[i] = stateSet;
+            colors[i] = mBuffer.getInt(offset);
+            offset += 4;
+        }
+        return new ColorStateList(states, colors);
+    }
+}
@@ -0,0 +1,56 @@
+package skin.support.content.res;
+
+import android.graphics.Bitmap;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.Drawable;
+import android.support.v4.util.LruCache;
+
+/**
+ * 皮肤包资源ID -> {@link Drawable.ConstantState}, 按字节数LRU淘汰.
+ */
+final class SkinCompatDrawableCache extends LruCache<Integer, SkinCompatDrawableCache.Entry> {
+    private static final int MIN_ENTRY_SIZE = 64;
+
+    SkinCompatDrawableCache(int maxBytes) {
+        super(Math.max(1, maxBytes));
+    }
+
+    Drawable.ConstantState getState(int resId) {
+        Entry entry = get(resId);
+        return entry == null ? null : entry.state;
+    }
+
+    void putState(int resId, Drawable.ConstantState state, Drawable drawable) {
+        put(resId, new Entry(state, estimateSize(drawable)));
+    }
+
+    @Override
+    protected int sizeOf(Integer key, Entry value) {
+        return value.size;
+    }
+
+    private static int estimateSize(Drawable drawable) {
+        if (drawable instanceof BitmapDrawable) {
+            Bitmap bitmap = ((BitmapDrawable) drawable).getBitmap();
+            if (bitmap != null) {
+                return Math.max(MIN_ENTRY_SIZE, bitmap.getByteCount());
+            }
+        }
+        int width = drawable.getIntrinsicWidth();
+        int height = drawable.getIntrinsicHeight();
+        if (width > 0 && height > 0) {
+            return Math.max(MIN_ENTRY_SIZE, width * height * 4);
+        }
+        return MIN_ENTRY_SIZE;
+    }
+
+    static final class Entry {
+        final Drawable.ConstantState state;
+        final int size;
+
+        Entry(Drawable.ConstantState state, int size) {
+            this.state = state;
+            this.size = size;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package skin.support.content.res;
+
+/**
+ * 皮肤包资源名的布隆过滤器.
+ * <p>
+ * {@link #mightContain(String, String)}返回false时, 皮肤包中一定不存在该资源, 无需再调用getIdentifier;
+ * 返回true时仍需实际查找. 每个资源约占10 bit, 误判率约1%.
+ */
+final class SkinCompatEntryFilter {
+    private static final int BITS_PER_ENTRY = 10;
+    private static final int HASH_COUNT = 7;
+
+    private final long[] mBits;
+    private final int mBitCount;
+
+    SkinCompatEntryFilter(int expectedEntries) {
+        int bitCount = Math.max(64, expectedEntries * BITS_PER_ENTRY);
+        mBits = new long[(bitCount + 63) >>> 6];
+        mBitCount = mBits.length << 6;
+    }
+
+    void put(String type, String name) {
+        int hash1 = hash1(type, name);
+        int hash2 = hash2(hash1);
+        for (int i = 0; i < HASH_COUNT; i++) {
+            int bit = ((hash1 + i * hash2) & Integer.MAX_VALUE) % mBitCount;
+            mBits[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    boolean mightContain(String type, String name) {
+        int hash1 = hash1(type, name);
+        int hash2 = hash2(hash1);
+        for (int i = 0; i < HASH_COUNT; i++) {
+            int bit = ((hash1 + i * hash2) & Integer.MAX_VALUE) % mBitCount;
+            if ((mBits[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hash1(String type, String name) {
+        return name.hashCode() * 31 + type.hashCode();
+    }
+
+    private static int hash2(int hash) {
+        // murmur3 fmix32
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return hash | 1;
+    }
+}
@@ -0,0 +1,155 @@
+package skin.support.content.res;
+
+import android.util.SparseIntArray;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * 资源ID映射表的磁盘存储.
+ * <p>
+ * 文件格式: magic(int) version(int) skinLength(long) skinModified(long) skinChecksum(long) fingerprint(long)
+ * count(int) [hostResId(int) targetResId(int)] * count, hostResId 按升序排列.
+ * 皮肤包文件的大小、修改时间及校验值一同记录, 皮肤包未变化时无需重新计算校验值.
+ */
+final class SkinCompatIndexFile {
+    private static final int MAGIC = 0x534b4958;
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 8 + 8 + 4;
+    private static final int ENTRY_SIZE = 4 + 4;
+
+    private SkinCompatIndexFile() {
+    }
+
+    /**
+     * 读取映射表中记录的皮肤包校验值.
+     *
+     * @param skinLength   当前皮肤包文件大小.
+     * @param skinModified 当前皮肤包文件修改时间.
+     * @return 文件不存在、格式错误或皮肤包已变化时返回-1.
+     */
+    static long readChecksum(File file, long skinLength, long skinModified) {
+        if (!file.isFile() || file.length() < HEADER_SIZE) {
+            return -1;
+        }
+        DataInputStream is = null;
+        try {
+            is = new DataInputStream(new BufferedInputStream(new FileInputStream(file), HEADER_SIZE));
+            if (is.readInt() != MAGIC
+                    || is.readInt() != VERSION
+                    || is.readLong() != skinLength
+                    || is.readLong() != skinModified) {
+                return -1;
+            }
+            return is.readLong();
+        } catch (IOException e) {
+            return -1;
+        } finally {
+            closeQuietly(is);
+        }
+    }
+
+    /**
+     * 读取资源ID映射表.
+     *
+     * @param file        映射表文件.
+     * @param fingerprint 当前皮肤包指纹.
+     * @return 文件不存在、格式错误或指纹不匹配时返回null.
+     */
+    static SparseIntArray read(File file, long fingerprint) {
+        long size = file.length();
+        if (!file.isFile() || size < HEADER_SIZE) {
+            return null;
+        }
+        DataInputStream is = null;
+        try {
+            is = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            if (is.readInt() != MAGIC || is.readInt() != VERSION) {
+                return null;
+            }
+            // 皮肤包大小, 修改时间及校验值已包含在指纹中.
+            is.readLong();
+            is.readLong();
+            is.readLong();
+            if (is.readLong() != fingerprint) {
+                return null;
+            }
+            int count = is.readInt();
+            if (count < 0 || size != HEADER_SIZE + (long) count * ENTRY_SIZE) {
+                return null;
+            }
+            SparseIntArray index = new SparseIntArray(count);
+            int lastKey = Integer.MIN_VALUE;
+            for (int i = 0; i < count; i++) {
+                int key = is.readInt();
+                int value = is.readInt();
+                if (i > 0 && key <= lastKey) {
+                    return null;
+                }
+                index.append(key, value);
+                lastKey = key;
+            }
+            return index;
+        } catch (Exception e) {
+            return null;
+        } finally {
+            closeQuietly(is);
+        }
+    }
+
+    /**
+     * 写入资源ID映射表. 先写入临时文件, 再重命名, 避免留下不完整的文件.
+     *
+     * @param skinLength   皮肤包文件大小, 没有皮肤包文件时为0.
+     * @param skinModified 皮肤包文件修改时间.
+     * @param skinChecksum 皮肤包校验值, 见{@link #readChecksum(File, long, long)}.
+     * @return 写入成功返回true.
+     */
+    static boolean write(File file, long skinLength, long skinModified, long skinChecksum,
+                         long fingerprint, SparseIntArray index) {
+        File tmp = new File(file.getPath() + ".tmp");
+        DataOutputStream os = null;
+        try {
+            os = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+            os.writeInt(MAGIC);
+            os.writeInt(VERSION);
+            os.writeLong(skinLength);
+            os.writeLong(skinModified);
+            os.writeLong(skinChecksum);
+            os.writeLong(fingerprint);
+            int count = index.size();
+            os.writeInt(count);
+            for (int i = 0; i < count; i++) {
+                os.writeInt(index.keyAt(i));
+                os.writeInt(index.valueAt(i));
+            }
+            os.close();
+            os = null;
+            if (tmp.renameTo(file)) {
+                return true;
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            closeQuietly(os);
+        }
+        tmp.delete();
+        return false;
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package skin.support.content.res;
+
+import android.content.res.Resources;
+
+/**
+ * 皮肤叠加层. 只包含少量资源(如颜色)的皮肤包, 叠加在当前皮肤之上, 其中不存在的资源继续从下层皮肤中查找.
+ */
+public final class SkinCompatLayer {
+    final Resources resources;
+    final String pkgName;
+
+    public SkinCompatLayer(Resources resources, String pkgName) {
+        this.resources = resources;
+        this.pkgName = pkgName;
+    }
+
+    public Resources getResources() {
+        return resources;
+    }
+
+    public String getPkgName() {
+        return pkgName;
+    }
+}
@@ -0,0 +1,80 @@
+package skin.support.content.res;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.support.annotation.ColorInt;
+import android.support.annotation.ColorRes;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 调色板皮肤, 运行时指定颜色资源对应的颜色值, 无需皮肤包.
+ * <p>
+ * 序列化格式与{@link SkinCompatColorTable}相同, 以资源名为key, 应用升级后仍可恢复.
+ */
+public final class SkinCompatPalette {
+    /**
+     * 资源名 -> 颜色值. 以资源ID添加的颜色在序列化时转换为资源名.
+     */
+    private final Map<String, Integer> mNamedColors = new LinkedHashMap<>();
+    private final Map<Integer, Integer> mColors = new LinkedHashMap<>();
+
+    public SkinCompatPalette putColor(@ColorRes int resId, @ColorInt int color) {
+        mColors.put(resId, color);
+        return this;
+    }
+
+    /**
+     * @param entryName 颜色资源名, 如"colorPrimary".
+     */
+    public SkinCompatPalette putColor(String entryName, @ColorInt int color) {
+        mNamedColors.put(entryName, color);
+        return this;
+    }
+
+    /**
+     * 序列化调色板.
+     */
+    public byte[] toByteArray(Context context) {
+        Map<String, Integer> colors = new LinkedHashMap<>(mNamedColors);
+        Resources resources = context.getResources();
+        for (Map.Entry<Integer, Integer> entry : mColors.entrySet()) {
+            try {
+                colors.put(resources.getResourceEntryName(entry.getKey()), entry.getValue());
+            } catch (Resources.NotFoundException e) {
+                e.printStackTrace();
+            }
+        }
+        try {
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            DataOutputStream os = new DataOutputStream(bos);
+            os.writeInt(SkinCompatColorTable.MAGIC);
+            os.writeInt(SkinCompatColorTable.VERSION);
+            os.writeInt(SkinCompatColorTable.FLAG_NAME_KEYS);
+            os.writeInt(colors.size());
+            for (Map.Entry<String, Integer> entry : colors.entrySet()) {
+                byte[] name = entry.getKey().getBytes("UTF-8");
+                os.writeShort(name.length);
+                os.write(name);
+                os.writeInt(entry.getValue());
+                os.writeInt(0);
+            }
+            os.close();
+            return bos.toByteArray();
+        } catch (IOException e) {
+            // ByteArrayOutputStream 不会抛出IOException.
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 转换为内存中的颜色表.
+     */
+    public SkinCompatColorTable toColorTable(Context context) {
+        return SkinCompatColorTable.read(context, toByteArray(context));
+    }
+}
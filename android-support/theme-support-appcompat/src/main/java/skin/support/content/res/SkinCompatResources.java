@@ -1,10 +1,14 @@
 package skin.support.content.res;
 
 import android.app.Activity;
+import android.content.ComponentCallbacks;
 import android.content.ComponentName;
 import android.content.Context;
 import android.content.pm.ActivityInfo;
+import android.content.pm.PackageInfo;
+import android.content.pm.PackageManager;
 import android.content.res.ColorStateList;
+import android.content.res.Configuration;
 import android.content.res.Resources;
 import android.content.res.TypedArray;
 import android.content.res.XmlResourceParser;
@@ -15,32 +19,128 @@ import android.support.annotation.StyleRes;
 import android.support.annotation.StyleableRes;
 import android.support.annotation.XmlRes;
 import android.support.v4.content.ContextCompat;
+import android.os.SystemClock;
 import android.text.TextUtils;
 import android.util.AttributeSet;
+import android.util.SparseArray;
+import android.util.SparseIntArray;
 import android.util.TypedValue;
 
+import java.io.File;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
 
 import skin.support.SkinCompatManager;
+import skin.support.SkinLoadReport;
+import skin.support.utils.SkinApkUtils;
+import skin.support.utils.SkinConstants;
+import skin.support.utils.SkinFileUtils;
 import skin.support.widget.SkinCompatContextWrapper;
 import skin.support.widget.SkinCompatDrawableManager;
 
 public class SkinCompatResources {
+    private static final int UNRESOLVED_RES_ID = -1;
+    private static final int APP_PACKAGE_ID = 0x7f;
+    private static final int[] UNCHANGED_ARRAY = new int[0];
+    /**
+     * 建立完整资源索引时需要遍历的资源类型.
+     */
+    private static final String[] INDEX_RES_TYPES = {"color", "drawable", "mipmap", "style", "attr"};
+    private static final SkinCompatLayer[] NO_OVERLAYS = new SkinCompatLayer[0];
+    private static final AtomicInteger sGeneration = new AtomicInteger();
     private static volatile SkinCompatResources sInstance;
     private final Context mAppContext;
-    private Resources mResources;
-    private String mSkinPkgName;
-    private String mSkinName;
-    private SkinCompatManager.SkinLoaderStrategy mStrategy;
-    private boolean isDefaultSkin;
+    /**
+     * 当前皮肤状态, 切换皮肤时整体替换.
+     */
+    private volatile SkinCompatState mState;
     private Map<Context, SkinCompatTheme> mThemeCache = new WeakHashMap<>();
+    /**
+     * Activity类名 -> AndroidManifest中声明的主题ID.
+     */
+    private final Map<String, Integer> mActivityThemes = new ConcurrentHashMap<>();
+    private long mIndexBuildTime = -1;
+    private final AtomicInteger mColorCacheHitCount = new AtomicInteger();
+    private final AtomicInteger mColorCacheMissCount = new AtomicInteger();
+    private int mDrawableCacheSize = getDefaultDrawableCacheSize();
+    /**
+     * 已加载的皮肤状态, 按最近使用顺序淘汰. key: 加载策略类型 + 皮肤名.
+     */
+    private final LinkedHashMap<String, SkinCompatState> mStatePool = new LinkedHashMap<>(8, 0.75f, true);
+    private int mStatePoolMaxCount = 3;
+    private long mStatePoolMaxBytes = Runtime.getRuntime().maxMemory() / 8;
+    private int mStatePoolHitCount;
+    private int mStatePoolMissCount;
+    /**
+     * 当前线程只加载皮肤状态, 不应用.
+     */
+    private final ThreadLocal<SkinCompatState[]> mPrepareOnly = new ThreadLocal<>();
 
     private SkinCompatResources(Context context) {
         mAppContext = context.getApplicationContext();
+        mAppContext.registerComponentCallbacks(new ComponentCallbacks() {
+            @Override
+            public void onConfigurationChanged(Configuration newConfig) {
+                mState.clearValueCaches();
+                synchronized (mStatePool) {
+                    for (SkinCompatState state : mStatePool.values()) {
+                        state.clearValueCaches();
+                    }
+                }
+                for (SkinCompatTheme theme : mThemeCache.values()) {
+                    theme.clearAttrCache();
+                }
+            }
+
+            @Override
+            public void onLowMemory() {
+            }
+        });
+        loadActivityThemes();
         reset();
     }
 
+    private void loadActivityThemes() {
+        try {
+            PackageInfo info = mAppContext.getPackageManager().getPackageInfo(
+                    mAppContext.getPackageName(), PackageManager.GET_ACTIVITIES);
+            if (info.activities != null) {
+                for (ActivityInfo activityInfo : info.activities) {
+                    mActivityThemes.put(activityInfo.name, activityInfo.theme);
+                }
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    private int getActivityThemeResId(Activity activity) {
+        String className = activity.getClass().getName();
+        Integer themeResId = mActivityThemes.get(className);
+        if (themeResId == null) {
+            // 初始化时未获取到的组件, 如动态注册的Activity.
+            themeResId = 0;
+            try {
+                ActivityInfo info = activity.getPackageManager().getActivityInfo(
+                        new ComponentName(activity.getPackageName(), className), 0);
+                if (info != null) {
+                    themeResId = info.theme;
+                }
+            } catch (Exception e) {
+            }
+            mActivityThemes.put(className, themeResId);
+        }
+        return themeResId;
+    }
+
     public static void init(Context context) {
         if (sInstance == null) {
             synchronized (SkinCompatResources.class) {
@@ -56,123 +156,869 @@ public class SkinCompatResources {
     }
 
     public void reset() {
-        mResources = mAppContext.getResources();
-        mSkinPkgName = mAppContext.getPackageName();
-        mSkinName = "";
-        mStrategy = null;
-        isDefaultSkin = true;
-        resetThemeMap();
-        SkinCompatDrawableManager.get().reset();
+        publishState(newState(mAppContext.getResources(), mAppContext.getPackageName(),
+                "", null, null, true, NO_OVERLAYS));
     }
 
     @Deprecated
     public void setSkinResource(Resources resources, String pkgName) {
-        mResources = resources;
-        mSkinPkgName = pkgName;
-        mSkinName = "";
-        mStrategy = null;
-        isDefaultSkin = mAppContext.getPackageName().equals(pkgName);
-        resetThemeMap();
-        SkinCompatDrawableManager.get().reset();
+        setupSkin(newState(resources, pkgName, "", null, null,
+                mAppContext.getPackageName().equals(pkgName), NO_OVERLAYS));
     }
 
     public void setupSkin(Resources resources, String pkgName, String skinName, SkinCompatManager.SkinLoaderStrategy strategy) {
-        mResources = resources;
-        mSkinPkgName = pkgName;
-        mSkinName = skinName;
-        mStrategy = strategy;
-        isDefaultSkin = TextUtils.isEmpty(skinName);
-        resetThemeMap();
+        setupSkin(resources, pkgName, skinName, null, strategy);
+    }
+
+    /**
+     * @param skinPath 皮肤包文件路径, 用于计算皮肤包指纹. 应用内资源换肤时为空.
+     */
+    public void setupSkin(Resources resources, String pkgName, String skinName, String skinPath, SkinCompatManager.SkinLoaderStrategy strategy) {
+        SkinCompatState state = newState(resources, pkgName, skinName, skinPath, strategy,
+                TextUtils.isEmpty(skinName), NO_OVERLAYS);
+        prepareSkinIndex(state);
+        setupSkin(state);
+    }
+
+    /**
+     * @param targetResIds 加载策略预先计算的映射表, 应用资源ID -> 皮肤资源ID, 皮肤中不存在的资源记为0.
+     *                     表中未包含的资源在使用时再查找. 调用后不可再修改.
+     */
+    public void setupSkin(Resources resources, String pkgName, String skinName, SkinCompatManager.SkinLoaderStrategy strategy,
+                          SparseIntArray targetResIds) {
+        SkinCompatState state = newState(resources, pkgName, skinName, null, strategy,
+                TextUtils.isEmpty(skinName), NO_OVERLAYS);
+        state.setTargetResIdIndex(targetResIds, null);
+        setupSkin(state);
+    }
+
+    /**
+     * 使用颜色表皮肤, 只替换颜色资源, 其他资源使用应用自带资源.
+     */
+    public void setupSkin(String skinName, SkinCompatColorTable colorTable, SkinCompatManager.SkinLoaderStrategy strategy) {
+        setupSkin(skinName, colorTable, null, strategy);
+    }
+
+    /**
+     * @param skinPath 颜色表文件路径, 文件被替换后不再使用皮肤状态池中的皮肤. 颜色表不来自文件时为空.
+     */
+    public void setupSkin(String skinName, SkinCompatColorTable colorTable, String skinPath,
+                          SkinCompatManager.SkinLoaderStrategy strategy) {
+        SkinCompatState state = newState(mAppContext.getResources(), mAppContext.getPackageName(),
+                skinName, skinPath, strategy, true, NO_OVERLAYS);
+        state.colorTable = colorTable;
+        setupSkin(state);
+    }
+
+    private void setupSkin(SkinCompatState state) {
+        putPooledState(state);
+        SkinCompatState[] prepared = mPrepareOnly.get();
+        if (prepared != null) {
+            prepared[0] = state;
+        } else {
+            publishState(state);
+        }
+    }
+
+    /**
+     * 加载皮肤并放入皮肤状态池, 不应用到界面. 需在后台线程中调用.
+     *
+     * @param skinName 皮肤包名称.
+     * @param strategy 皮肤包加载策略.
+     * @return 加载成功返回true.
+     */
+    public boolean prepareSkin(String skinName, SkinCompatManager.SkinLoaderStrategy strategy) {
+        if (TextUtils.isEmpty(skinName) || strategy == null) {
+            return false;
+        }
+        synchronized (mStatePool) {
+            if (getPooledStateLocked(skinName, strategy) != null) {
+                return true;
+            }
+        }
+        return prepareSkinState(skinName, strategy) != null;
+    }
+
+    /**
+     * 加载皮肤并放入皮肤状态池, 不应用到界面, 之后通过{@link #applySkinState(SkinCompatState)}应用. 需在后台线程中调用.
+     *
+     * @param skinName 皮肤包名称.
+     * @param strategy 皮肤包加载策略.
+     * @return 加载失败时返回null.
+     */
+    public SkinCompatState prepareSkinState(String skinName, SkinCompatManager.SkinLoaderStrategy strategy) {
+        if (strategy == null) {
+            return null;
+        }
+        SkinCompatState[] prepared = new SkinCompatState[1];
+        mPrepareOnly.set(prepared);
+        try {
+            if (TextUtils.isEmpty(strategy.loadSkinInBackground(mAppContext, skinName))) {
+                return null;
+            }
+            return prepared[0];
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        } finally {
+            mPrepareOnly.remove();
+        }
+    }
+
+    /**
+     * 创建使用指定皮肤的作用域, 不影响全局皮肤. 皮肤已在皮肤状态池中时无需重新加载.
+     * 需在皮肤加载线程中调用, 见{@link SkinCompatManager#newSkinScope(String, int)}.
+     *
+     * @param skinName 皮肤包名称, 为空时使用应用默认皮肤.
+     * @param strategy 皮肤包加载策略.
+     * @return 加载失败时返回null.
+     */
+    public SkinCompatScope newSkinScope(String skinName, SkinCompatManager.SkinLoaderStrategy strategy) {
+        SkinCompatState state;
+        if (TextUtils.isEmpty(skinName)) {
+            state = newState(mAppContext.getResources(), mAppContext.getPackageName(), "", null, null,
+                    true, NO_OVERLAYS);
+        } else if (strategy == null) {
+            return null;
+        } else {
+            synchronized (mStatePool) {
+                state = getPooledStateLocked(skinName, strategy);
+            }
+            if (state == null) {
+                state = prepareSkinState(skinName, strategy);
+                if (state == null) {
+                    return null;
+                }
+            }
+        }
+        return new SkinCompatScope(state.fork(state.generation, mDrawableCacheSize));
+    }
+
+    /**
+     * 当前线程使用的皮肤状态, 在{@link SkinCompatScope}中时为作用域的皮肤.
+     */
+    private SkinCompatState currentState() {
+        SkinCompatScope scope = SkinCompatScope.current();
+        return scope != null ? scope.state : mState;
+    }
+
+    /**
+     * 从皮肤状态池中取出已加载的皮肤并应用, 无需重新加载皮肤包.
+     *
+     * @param skinName 皮肤包名称.
+     * @param strategy 皮肤包加载策略.
+     * @return 皮肤不在状态池中时返回false.
+     */
+    public boolean applyPooledSkin(String skinName, SkinCompatManager.SkinLoaderStrategy strategy) {
+        SkinCompatState state = obtainPooledSkin(skinName, strategy);
+        if (state == null) {
+            return false;
+        }
+        publishState(state);
+        return true;
+    }
+
+    /**
+     * 从皮肤状态池中取出已加载的皮肤, 不应用到界面.
+     *
+     * @param skinName 皮肤包名称.
+     * @param strategy 皮肤包加载策略.
+     * @return 皮肤不在状态池中时返回null.
+     */
+    public SkinCompatState obtainPooledSkin(String skinName, SkinCompatManager.SkinLoaderStrategy strategy) {
+        synchronized (mStatePool) {
+            SkinCompatState state = getPooledStateLocked(skinName, strategy);
+            if (state == null) {
+                mStatePoolMissCount++;
+            } else {
+                mStatePoolHitCount++;
+            }
+            return state;
+        }
+    }
+
+    /**
+     * 应用已加载的皮肤, 如{@link #prepareSkinState(String, SkinCompatManager.SkinLoaderStrategy)}的返回值.
+     */
+    public void applySkinState(SkinCompatState state) {
+        publishState(state);
+    }
+
+    /**
+     * 设置皮肤状态池大小. 每个皮肤状态的内存按皮肤包文件大小及Drawable缓存估算.
+     *
+     * @param maxCount 最多保留的皮肤数, 包括当前皮肤. 为0时不保留.
+     * @param maxBytes 内存上限(字节).
+     */
+    public void setSkinStatePoolSize(int maxCount, long maxBytes) {
+        synchronized (mStatePool) {
+            mStatePoolMaxCount = maxCount;
+            mStatePoolMaxBytes = maxBytes;
+            trimStatePool();
+        }
+    }
+
+    public int getSkinStatePoolHitCount() {
+        return mStatePoolHitCount;
+    }
+
+    public int getSkinStatePoolMissCount() {
+        return mStatePoolMissCount;
+    }
+
+    /**
+     * 叠加层不属于皮肤本身, 带叠加层的皮肤状态不放入皮肤状态池, 切换回该皮肤时不带叠加层.
+     * 颜色表皮肤(包括调色板)基于应用默认皮肤, 同样放入皮肤状态池, 切换时无需重新读取颜色表.
+     */
+    private void putPooledState(SkinCompatState state) {
+        if ((state.isDefaultSkin && state.colorTable == null) || state.strategy == null || state.hasOverlays()) {
+            return;
+        }
+        synchronized (mStatePool) {
+            mStatePool.put(getPoolKey(state.skinName, state.strategy), state);
+            trimStatePool();
+        }
+    }
+
+    /**
+     * 从皮肤状态池中移除皮肤, 下次使用时重新加载, 如皮肤文件已更新时. 不影响当前皮肤.
+     *
+     * @param skinName 皮肤包名称.
+     * @param strategy 皮肤包加载策略.
+     */
+    public void evict(String skinName, SkinCompatManager.SkinLoaderStrategy strategy) {
+        if (TextUtils.isEmpty(skinName) || strategy == null) {
+            return;
+        }
+        synchronized (mStatePool) {
+            removePooledStateLocked(getPoolKey(skinName, strategy));
+        }
+    }
+
+    /**
+     * 皮肤文件在加载后被替换或删除时, 移除该皮肤并返回null.
+     */
+    private SkinCompatState getPooledStateLocked(String skinName, SkinCompatManager.SkinLoaderStrategy strategy) {
+        String key = getPoolKey(skinName, strategy);
+        SkinCompatState state = mStatePool.get(key);
+        if (state != null && state.isSkinFileChanged()) {
+            removePooledStateLocked(key);
+            return null;
+        }
+        return state;
+    }
+
+    private void removePooledStateLocked(String key) {
+        SkinCompatState state = mStatePool.remove(key);
+        if (state != null && state != mState) {
+            state.drawableCache.evictAll();
+        }
+    }
+
+    private void trimStatePool() {
+        long size = 0;
+        for (SkinCompatState state : mStatePool.values()) {
+            size += state.estimateSize();
+        }
+        Iterator<SkinCompatState> iterator = mStatePool.values().iterator();
+        while (iterator.hasNext()
+                && (mStatePool.size() > mStatePoolMaxCount || size > mStatePoolMaxBytes)) {
+            SkinCompatState eldest = iterator.next();
+            size -= eldest.estimateSize();
+            if (eldest != mState) {
+                eldest.drawableCache.evictAll();
+            }
+            iterator.remove();
+        }
+    }
+
+    private static String getPoolKey(String skinName, SkinCompatManager.SkinLoaderStrategy strategy) {
+        return strategy.getType() + ":" + skinName;
+    }
+
+    /**
+     * 在当前皮肤之上叠加皮肤包, 资源按从上到下的顺序查找. 切换皮肤时叠加层被清除.
+     * 叠加层只提供颜色、图片等资源, 主题及属性仍由基础皮肤提供, 主题属性引用的颜色同样从叠加层中查找.
+     * 需在皮肤加载线程中调用, 一般通过{@link SkinCompatManager#setSkinOverlays(List)}调用.
+     *
+     * @param overlays 叠加层, 第一个为最上层. 为空时移除所有叠加层.
+     * @return 期间切换了皮肤时不应用, 返回false.
+     */
+    public boolean setSkinOverlays(List<SkinCompatLayer> overlays) {
+        SkinCompatState base = mState;
+        SkinCompatLayer[] layers = overlays == null || overlays.isEmpty()
+                ? NO_OVERLAYS : overlays.toArray(new SkinCompatLayer[overlays.size()]);
+        SkinCompatState state = newState(base.resources, base.pkgName, base.skinName, base.skinPath,
+                base.strategy, base.isDefaultBase, layers);
+        state.entryFilter = base.entryFilter;
+        state.colorTable = base.colorTable;
+        prepareSkinIndex(state);
+        return publishStateIfCurrent(base, state);
+    }
+
+    private SkinCompatState newState(Resources resources, String pkgName, String skinName, String skinPath,
+                                     SkinCompatManager.SkinLoaderStrategy strategy, boolean isDefaultBase,
+                                     SkinCompatLayer[] overlays) {
+        return new SkinCompatState(resources, pkgName, skinName, skinPath, strategy, isDefaultBase,
+                overlays, sGeneration.incrementAndGet(), mDrawableCacheSize);
+    }
+
+    private void publishState(SkinCompatState state) {
+        synchronized (this) {
+            mState = state;
+        }
+        SkinCompatDrawableManager.get().reset();
+    }
+
+    /**
+     * 当前皮肤仍为base时发布新的皮肤状态, 避免覆盖期间加载的其他皮肤.
+     *
+     * @return 当前皮肤已变化时返回false.
+     */
+    private boolean publishStateIfCurrent(SkinCompatState base, SkinCompatState state) {
+        synchronized (this) {
+            if (mState != base) {
+                return false;
+            }
+            mState = state;
+        }
+        putPooledState(state);
         SkinCompatDrawableManager.get().reset();
+        return true;
+    }
+
+    /**
+     * 复制当前皮肤状态, 用于在后台线程中修改后重新发布.
+     */
+    private SkinCompatState forkState(SkinCompatState base) {
+        return base.fork(sGeneration.incrementAndGet(), mDrawableCacheSize);
+    }
+
+    /**
+     * 获取当前皮肤状态快照.
+     *
+     * @return
+     */
+    public SkinCompatState getSkinState() {
+        return mState;
+    }
+
+    /**
+     * 设置皮肤包Drawable缓存大小. 当前皮肤以新的缓存重新发布.
+     *
+     * @param maxBytes 缓存上限(字节), 默认为最大可用内存的1/32.
+     */
+    public void setDrawableCacheSize(int maxBytes) {
+        mDrawableCacheSize = maxBytes;
+        SkinCompatState base = mState;
+        if (publishStateIfCurrent(base, forkState(base))) {
+            base.drawableCache.evictAll();
+        }
+    }
+
+    private static int getDefaultDrawableCacheSize() {
+        return (int) Math.min(Integer.MAX_VALUE, Runtime.getRuntime().maxMemory() / 32);
+    }
+
+    /**
+     * 新皮肤发布之前, 根据{@link SkinCompatManager}的配置读取或建立资源索引.
+     */
+    private void prepareSkinIndex(SkinCompatState state) {
+        SkinCompatManager manager = SkinCompatManager.getInstance();
+        if (manager == null || state.isDefaultSkin) {
+            return;
+        }
+        long start = SkinLoadReport.startPhase();
+        if (manager.isSkinIndexPersistEnable() && !state.hasOverlays()) {
+            // 皮肤包未变化时校验值从映射表中读取, 读取及写入映射表共用一次计算结果.
+            long checksum = getSkinChecksum(state);
+            long fingerprint = getSkinFingerprint(state, checksum);
+            if (restoreTargetResIdIndex(state, fingerprint)) {
+                SkinLoadReport.recordIndexRestored();
+            } else {
+                buildEntryFilter(state);
+                buildTargetResIdIndex(state);
+                saveTargetResIdIndex(state, checksum, fingerprint);
+            }
+        } else {
+            buildEntryFilter(state);
+            if (manager.isSkinIndexPreloadEnable() || manager.isSkinIndexPersistEnable()) {
+                buildTargetResIdIndex(state);
+            }
+        }
+        SkinLoadReport.endPhase(SkinLoadReport.PHASE_INDEX, start);
+    }
+
+    /**
+     * 读取皮肤包resources.arsc中的所有资源名, 建立布隆过滤器. 皮肤包中不存在的资源查找时直接返回, 不再调用getIdentifier.
+     * 资源ID可能不连续(public.xml, 固定资源ID), 无法读取皮肤包文件时不使用过滤器.
+     */
+    private void buildEntryFilter(SkinCompatState state) {
+        if (state.isDefaultBase || state.entryFilter != null || state.skinPath == null) {
+            return;
+        }
+        List<String[]> entries = SkinApkUtils.getResourceEntries(state.skinPath);
+        if (entries == null || entries.isEmpty()) {
+            return;
+        }
+        SkinCompatEntryFilter filter = new SkinCompatEntryFilter(entries.size());
+        for (String[] entry : entries) {
+            filter.put(entry[0], entry[1]);
+        }
+        state.entryFilter = filter;
+    }
+
+    /**
+     * 遍历应用中可换肤的资源类型(color, drawable, mipmap, style, attr), 建立完整的资源ID映射表.
+     * 需在皮肤包加载完成后, 于后台线程中调用. 索引建立在当前皮肤的副本上, 完成后重新发布.
+     * 之后换肤过程中的资源查找均为查表操作.
+     *
+     * @return 建立索引耗时(ms).
+     */
+    public long buildTargetResIdIndex() {
+        SkinCompatState base = mState;
+        SkinCompatState state = forkState(base);
+        long time = buildTargetResIdIndex(state);
+        publishStateIfCurrent(base, state);
+        return time;
+    }
+
+    private long buildTargetResIdIndex(SkinCompatState state) {
+        long start = SystemClock.elapsedRealtime();
+        if (!state.isDefaultSkin) {
+            Resources appResources = mAppContext.getResources();
+            SparseIntArray index = new SparseIntArray();
+            SparseIntArray reverseIndex = new SparseIntArray();
+            // 资源ID格式为 0xPPTTEEEE, 类型与资源项均从头连续分配.
+            for (int typeId = 1; typeId <= 0xff; typeId++) {
+                int typeBase = (APP_PACKAGE_ID << 24) | (typeId << 16);
+                String type;
+                try {
+                    type = appResources.getResourceTypeName(typeBase);
+                } catch (Resources.NotFoundException e) {
+                    break;
+                }
+                if (!isIndexResType(type)) {
+                    continue;
+                }
+                for (int entryId = 0; entryId <= 0xffff; entryId++) {
+                    int resId = typeBase | entryId;
+                    try {
+                        appResources.getResourceEntryName(resId);
+                    } catch (Resources.NotFoundException e) {
+                        break;
+                    }
+                    index.put(resId, resolveTargetResId(state, resId, type, reverseIndex));
+                }
+            }
+            state.setTargetResIdIndex(index, state.hasOverlays() ? state.targetLayerCache.clone() : null);
+            state.hostResIdCache = reverseIndex;
+        }
+        mIndexBuildTime = SystemClock.elapsedRealtime() - start;
+        return mIndexBuildTime;
+    }
+
+    /**
+     * 获取最近一次建立资源索引的耗时.
+     *
+     * @return 耗时(ms), 未建立过索引时返回-1.
+     */
+    public long getIndexBuildTime() {
+        return mIndexBuildTime;
+    }
+
+    /**
+     * 从磁盘读取当前皮肤包的资源ID映射表, 读取成功后以新的映射表重新发布当前皮肤.
+     * 皮肤包指纹(皮肤包文件校验值, 应用版本)不匹配时读取失败.
+     *
+     * @return 读取成功且期间未切换皮肤时返回true.
+     */
+    public boolean restoreTargetResIdIndex() {
+        SkinCompatState base = mState;
+        SkinCompatState state = forkState(base);
+        return restoreTargetResIdIndex(state, getSkinFingerprint(state, getSkinChecksum(state)))
+                && publishStateIfCurrent(base, state);
     }
 
-    private void resetThemeMap() {
-        for (SkinCompatTheme theme : mThemeCache.values()) {
-            theme.reset(mResources);
+    private boolean restoreTargetResIdIndex(SkinCompatState state, long fingerprint) {
+        // 映射表文件中不记录叠加层.
+        if (state.isDefaultSkin || state.hasOverlays()) {
+            return false;
         }
+        long start = SystemClock.elapsedRealtime();
+        SparseIntArray index = SkinCompatIndexFile.read(getIndexFile(state), fingerprint);
+        if (index == null) {
+            return false;
+        }
+        state.setTargetResIdIndex(index, null);
+        state.hostResIdCache = new SparseIntArray();
+        mIndexBuildTime = SystemClock.elapsedRealtime() - start;
+        return true;
+    }
+
+    /**
+     * 将当前资源ID映射表写入磁盘, 下次启动时通过{@link #restoreTargetResIdIndex()}读取.
+     * 需在{@link #buildTargetResIdIndex()}之后调用.
+     *
+     * @return 写入成功返回true.
+     */
+    public boolean saveTargetResIdIndex() {
+        SkinCompatState state = mState;
+        long checksum = getSkinChecksum(state);
+        return saveTargetResIdIndex(state, checksum, getSkinFingerprint(state, checksum));
+    }
+
+    private boolean saveTargetResIdIndex(SkinCompatState state, long checksum, long fingerprint) {
+        if (state.isDefaultSkin || state.hasOverlays() || state.targetResIdIndex == null) {
+            return false;
+        }
+        return SkinCompatIndexFile.write(getIndexFile(state), state.skinFileLength, state.skinFileModified,
+                checksum, fingerprint, state.targetResIdIndex);
+    }
+
+    private File getIndexFile(SkinCompatState state) {
+        int type = state.strategy == null ? SkinCompatManager.SKIN_LOADER_STRATEGY_NONE : state.strategy.getType();
+        return new File(SkinFileUtils.getSkinDir(mAppContext),
+                state.skinName + "_" + type + SkinConstants.SKIN_INDEX_SUFFIX);
+    }
+
+    /**
+     * 获取皮肤包校验值. 皮肤包大小及修改时间与映射表中记录的相同时直接使用记录的校验值, 否则读取整个皮肤包计算.
+     *
+     * @return 没有皮肤包文件时返回-1.
+     */
+    private long getSkinChecksum(SkinCompatState state) {
+        if (state.skinPath == null) {
+            return -1;
+        }
+        long checksum = SkinCompatIndexFile.readChecksum(getIndexFile(state),
+                state.skinFileLength, state.skinFileModified);
+        return checksum != -1 ? checksum : SkinFileUtils.getFileChecksum(state.skinPath);
+    }
+
+    private long getSkinFingerprint(SkinCompatState state, long checksum) {
+        CRC32 crc = new CRC32();
+        Charset utf8 = Charset.forName("UTF-8");
+        crc.update(state.skinName.getBytes(utf8));
+        crc.update(state.pkgName.getBytes(utf8));
+        long fingerprint = 0;
+        try {
+            PackageInfo info = mAppContext.getPackageManager().getPackageInfo(mAppContext.getPackageName(), 0);
+            // 应用内资源换肤时没有皮肤包文件, lastUpdateTime 保证应用资源变化后重建.
+            fingerprint = ((long) info.versionCode << 32) ^ info.lastUpdateTime;
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        if (state.skinPath != null) {
+            fingerprint = fingerprint * 31 + checksum;
+        }
+        return fingerprint * 31 + crc.getValue();
+    }
+
+    private static boolean isIndexResType(String type) {
+        for (String indexType : INDEX_RES_TYPES) {
+            if (indexType.equals(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 皮肤版本号, 每次切换皮肤时变化.
+     *
+     * @return
+     */
+    public int getSkinGeneration() {
+        return currentState().generation;
     }
 
     public Resources getSkinResources() {
-        return mResources;
+        return currentState().resources;
     }
 
     public String getSkinPkgName() {
-        return mSkinPkgName;
+        return currentState().pkgName;
     }
 
     public boolean isDefaultSkin() {
-        return isDefaultSkin;
+        SkinCompatState state = currentState();
+        return state.isDefaultSkin && state.colorTable == null;
     }
 
     public int getColor(int resId) {
-        int originColor = ContextCompat.getColor(mAppContext, resId);
-        if (isDefaultSkin) {
-            return originColor;
+        return getColor(currentState(), resId);
+    }
+
+    private int getColor(SkinCompatState state, int resId) {
+        SparseIntArray cache = state.colorCache;
+        int index = cache.indexOfKey(resId);
+        if (index >= 0) {
+            mColorCacheHitCount.incrementAndGet();
+            return cache.valueAt(index);
         }
+        mColorCacheMissCount.incrementAndGet();
 
-        int targetResId = getTargetResId(resId, "color");
-        return targetResId == 0 ? originColor : mResources.getColor(targetResId);
+        SkinCompatColorTable colorTable = state.colorTable;
+        int tableIndex = colorTable == null ? -1 : colorTable.indexOf(resId);
+        if (tableIndex >= 0) {
+            int color = colorTable.getColor(tableIndex);
+            cache.put(resId, color);
+            return color;
+        }
+        int targetResId = state.isDefaultSkin ? 0 : getTargetResId(state, resId, "color");
+        int color = targetResId == 0
+                ? ContextCompat.getColor(mAppContext, resId)
+                : state.getResources(resId).getColor(targetResId);
+        cache.put(resId, color);
+        return color;
     }
 
     public Drawable getDrawable(int resId) {
-        Drawable originDrawable = ContextCompat.getDrawable(mAppContext, resId);
-        if (isDefaultSkin) {
-            return originDrawable;
-        }
-
-        String resType = mAppContext.getResources().getResourceTypeName(resId);
-        int targetResId = getTargetResId(resId, resType);
-        return targetResId == 0 ? originDrawable : mResources.getDrawable(targetResId);
+        SkinCompatState state = currentState();
+        int targetResId = state.isDefaultSkin ? 0 : getTargetResId(state, resId);
+        return targetResId == 0
+                ? ContextCompat.getDrawable(mAppContext, resId)
+                : getSkinDrawable(state, resId, targetResId);
     }
 
     public Drawable getMipmap(int resId) {
-        Drawable originDrawable = ContextCompat.getDrawable(mAppContext, resId);
-        if (isDefaultSkin) {
-            return originDrawable;
-        }
+        SkinCompatState state = currentState();
+        int targetResId = state.isDefaultSkin ? 0 : getTargetResId(state, resId, "mipmap");
+        return targetResId == 0
+                ? ContextCompat.getDrawable(mAppContext, resId)
+                : getSkinDrawable(state, resId, targetResId);
+    }
 
-        int targetResId = getTargetResId(resId, "mipmap");
-        return targetResId == 0 ? originDrawable : mResources.getDrawable(targetResId);
+    private Drawable getSkinDrawable(SkinCompatState skinState, int resId, int targetResId) {
+        Resources resources = skinState.getResources(resId);
+        SkinCompatDrawableCache cache = skinState.drawableCache;
+        // 不同叠加层中的资源ID可能相同, 以应用资源ID为key.
+        Drawable.ConstantState state = cache.getState(resId);
+        if (state != null) {
+            return state.newDrawable(resources);
+        }
+        Drawable drawable = resources.getDrawable(targetResId);
+        if (drawable != null) {
+            state = drawable.getConstantState();
+            if (state != null) {
+                cache.putState(resId, state, drawable);
+            }
+        }
+        return drawable;
     }
 
     public ColorStateList getColorStateList(int resId) {
-        ColorStateList colorStateList = ContextCompat.getColorStateList(mAppContext, resId);
-        if (isDefaultSkin) {
+        return getColorStateList(currentState(), resId);
+    }
+
+    private ColorStateList getColorStateList(SkinCompatState state, int resId) {
+        SparseArray<ColorStateList> cache = state.colorStateListCache;
+        ColorStateList colorStateList = cache.get(resId);
+        if (colorStateList != null) {
+            mColorCacheHitCount.incrementAndGet();
             return colorStateList;
         }
+        mColorCacheMissCount.incrementAndGet();
+
+        SkinCompatColorTable colorTable = state.colorTable;
+        int tableIndex = colorTable == null ? -1 : colorTable.indexOf(resId);
+        if (tableIndex >= 0) {
+            colorStateList = colorTable.getColorStateList(tableIndex);
+            cache.put(resId, colorStateList);
+            return colorStateList;
+        }
+        int targetResId = state.isDefaultSkin ? 0 : getTargetResId(state, resId);
+        colorStateList = targetResId == 0
+                ? ContextCompat.getColorStateList(mAppContext, resId)
+                : state.getResources(resId).getColorStateList(targetResId);
+        if (colorStateList != null) {
+            cache.put(resId, colorStateList);
+        }
+        return colorStateList;
+    }
+
+    /**
+     * @return {@link #getColor(int)}, {@link #getColorStateList(int)} 命中缓存的次数.
+     */
+    public int getColorCacheHitCount() {
+        return mColorCacheHitCount.get();
+    }
+
+    /**
+     * @return {@link #getColor(int)}, {@link #getColorStateList(int)} 未命中缓存的次数.
+     */
+    public int getColorCacheMissCount() {
+        return mColorCacheMissCount.get();
+    }
+
+    private int getTargetResId(SkinCompatState state, int resId) {
+        SparseIntArray cache = state.targetResIdCache;
+        int targetResId = cache.get(resId, UNRESOLVED_RES_ID);
+        if (targetResId == UNRESOLVED_RES_ID) {
+            String type;
+            try {
+                type = mAppContext.getResources().getResourceTypeName(resId);
+            } catch (Exception e) {
+                type = null;
+            }
+            targetResId = type == null ? 0 : resolveTargetResId(state, resId, type, state.hostResIdCache);
+            cache.put(resId, targetResId);
+        }
+        return targetResId;
+    }
+
+    private int getTargetResId(SkinCompatState state, int resId, String type) {
+        SparseIntArray cache = state.targetResIdCache;
+        int targetResId = cache.get(resId, UNRESOLVED_RES_ID);
+        if (targetResId == UNRESOLVED_RES_ID) {
+            targetResId = resolveTargetResId(state, resId, type, state.hostResIdCache);
+            cache.put(resId, targetResId);
+        }
+        return targetResId;
+    }
+
+    /**
+     * 根据皮肤包中的资源ID, 获取应用中同名资源的ID.
+     *
+     * @param resources 资源ID所属的{@link Resources}, 如{@link TypedArray#getResources()}.
+     * @param resId     资源ID.
+     * @return 应用中对应的资源ID, 不存在时返回0.
+     */
+    public int getHostResId(Resources resources, int resId) {
+        return getHostResId(currentState(), resources, resId);
+    }
+
+    private int getHostResId(SkinCompatState state, Resources resources, int resId) {
+        if (state.isDefaultSkin || resources != state.resources
+                || mAppContext.getPackageName().equals(state.pkgName)) {
+            // 资源本身即属于应用.
+            return resId;
+        }
+        SparseIntArray cache = state.hostResIdCache;
+        int hostResId = cache.get(resId, UNRESOLVED_RES_ID);
+        if (hostResId == UNRESOLVED_RES_ID) {
+            try {
+                hostResId = mAppContext.getResources().getIdentifier(
+                        resources.getResourceEntryName(resId),
+                        resources.getResourceTypeName(resId),
+                        mAppContext.getPackageName());
+            } catch (Exception e) {
+                hostResId = 0;
+            }
+            cache.put(resId, hostResId);
+        }
+        return hostResId;
+    }
+
+    /**
+     * 从皮肤{@link TypedArray}中获取颜色. 引用的颜色资源由颜色表或叠加层替换时, 使用替换后的颜色.
+     */
+    int getStyledColor(TypedArray a, int index) {
+        return getStyledColor(currentState(), a, index);
+    }
+
+    ColorStateList getStyledColorStateList(TypedArray a, int index) {
+        return getStyledColorStateList(currentState(), a, index);
+    }
+
+    private int getStyledColor(SkinCompatState state, TypedArray a, int index) {
+        int resId = getOverriddenColorResId(state, a, index);
+        return resId != 0 ? getColor(state, resId) : a.getColor(index, 0);
+    }
 
-        String resType = mAppContext.getResources().getResourceTypeName(resId);
-        int targetResId = getTargetResId(resId, resType);
-        return targetResId == 0 ? colorStateList : mResources.getColorStateList(targetResId);
+    private ColorStateList getStyledColorStateList(SkinCompatState state, TypedArray a, int index) {
+        int resId = getOverriddenColorResId(state, a, index);
+        return resId != 0 ? getColorStateList(state, resId) : a.getColorStateList(index);
     }
 
-    private int getTargetResId(int resId, String type) {
+    /**
+     * 主题中的颜色来自基础皮肤. 其引用的资源在颜色表或叠加层中时, 返回对应的应用资源ID.
+     *
+     * @return 未被替换时返回0.
+     */
+    private int getOverriddenColorResId(SkinCompatState state, TypedArray a, int index) {
+        if (state.colorTable == null && !state.hasOverlays()) {
+            return 0;
+        }
+        int resId = a.getResourceId(index, 0);
+        if (resId == 0) {
+            return 0;
+        }
+        int hostResId = getHostResId(state, a.getResources(), resId);
+        if (hostResId == 0) {
+            return 0;
+        }
+        if (state.colorTable != null && state.colorTable.indexOf(hostResId) >= 0) {
+            return hostResId;
+        }
+        if (state.hasOverlays() && getTargetResId(state, hostResId) != 0
+                && state.targetLayerCache.get(hostResId, -1) >= 0) {
+            return hostResId;
+        }
+        return 0;
+    }
+
+    /**
+     * @param reverseIndex 按名称找到皮肤包资源时, 同时记录皮肤包资源ID -> 应用资源ID.
+     */
+    private int resolveTargetResId(SkinCompatState state, int resId, String type, SparseIntArray reverseIndex) {
         try {
             String pkgName = mAppContext.getResources().getResourcePackageName(resId);
             if ("android".equals(pkgName)) {
                 return 0;
             }
             String resName = null;
-            if (mStrategy != null) {
-                resName = mStrategy.getTargetResourceEntryName(mAppContext, mSkinName, resId);
+            if (state.strategy != null) {
+                resName = state.strategy.getTargetResourceEntryName(mAppContext, state.skinName, resId);
             }
-            if (TextUtils.isEmpty(resName)) {
-                resName = mAppContext.getResources().getResourceEntryName(resId);
+            String entryName = mAppContext.getResources().getResourceEntryName(resId);
+            if (state.hasOverlays() && !"style".equals(type) && !"attr".equals(type)) {
+                SkinCompatLayer[] overlays = state.overlays;
+                for (int i = 0; i < overlays.length; i++) {
+                    int targetResId = overlays[i].resources.getIdentifier(entryName, type, overlays[i].pkgName);
+                    if (targetResId != 0) {
+                        state.targetLayerCache.put(resId, i);
+                        return targetResId;
+                    }
+                }
             }
-            return mResources.getIdentifier(resName, type, mSkinPkgName);
+            boolean sameName = TextUtils.isEmpty(resName);
+            if (sameName) {
+                resName = entryName;
+            }
+            SkinCompatEntryFilter filter = state.entryFilter;
+            if (filter != null && !filter.mightContain(type, resName)) {
+                return 0;
+            }
+            int targetResId = state.resources.getIdentifier(resName, type, state.pkgName);
+            if (sameName && targetResId != 0) {
+                reverseIndex.put(targetResId, resId);
+            }
+            return targetResId;
         } catch (Exception e) {
             // 换肤失败不至于应用崩溃.
             return 0;
         }
     }
 
-    private int fixRes(int resId, String type) {
-        return fixRes(resId, true, type);
+    private int fixRes(SkinCompatState state, int resId) {
+        if (resId != 0) {
+            int targetId = getTargetResId(state, resId);
+            if (targetId != 0) {
+                resId = targetId;
+            }
+        }
+        return resId;
+    }
+
+    private int fixRes(SkinCompatState state, int resId, String type) {
+        return fixRes(state, resId, true, type);
     }
 
-    private int fixRes(int resId, boolean needFix, String type) {
+    private int fixRes(SkinCompatState state, int resId, boolean needFix, String type) {
         if (needFix && resId != 0) {
-            int targetId = getTargetResId(resId, type);
+            int targetId = getTargetResId(state, resId, type);
             if (targetId != 0) {
                 resId = targetId;
             }
@@ -180,40 +1026,77 @@ public class SkinCompatResources {
         return resId;
     }
 
-    private int[] fixResArray(int[] array, String type) {
-        return fixResArray(array, true, type);
+    private int[] fixResArray(SkinCompatState state, int[] array, String type) {
+        return fixResArray(state, array, true, type);
     }
 
-    private int[] fixResArray(int[] array, boolean needFix, String type) {
+    private int[] fixResArray(SkinCompatState state, int[] array, boolean needFix, String type) {
+        if (!needFix || array == null) {
+            return array;
+        }
+        // 只缓存styleable数组, 单个属性的数组一般为临时创建或被复用修改的数组.
+        boolean cacheable = array.length > 1;
+        Map<int[], int[]> cache = state.styleableCache;
+        if (cacheable) {
+            int[] cached = cache.get(array);
+            if (cached != null) {
+                return cached == UNCHANGED_ARRAY ? array : cached;
+            }
+        }
         int[] newArray = null;
-        if (needFix && array != null) {
-            newArray = new int[array.length];
-            for (int i = 0; i < array.length; i++) {
-                newArray[i] = array[i];
-                if (newArray[i] != 0) {
-                    newArray[i] = fixRes(newArray[i], true, type);
+        for (int i = 0; i < array.length; i++) {
+            if (array[i] != 0) {
+                int targetId = fixRes(state, array[i], true, type);
+                if (targetId != array[i]) {
+                    if (newArray == null) {
+                        newArray = array.clone();
+                    }
+                    newArray[i] = targetId;
                 }
             }
         }
-        if (newArray != null) {
-            return newArray;
+        if (cacheable) {
+            // value不能引用key本身, 否则WeakHashMap中的key无法被回收.
+            cache.put(array, newArray == null ? UNCHANGED_ARRAY : newArray);
         }
-        return array;
+        return newArray == null ? array : newArray;
     }
 
     public XmlResourceParser getXml(@XmlRes int id) {
-        return mResources.getXml(fixRes(id, mAppContext.getResources().getResourceTypeName(id)));
+        SkinCompatState state = currentState();
+        int targetId = fixRes(state, id);
+        return state.getResources(id).getXml(targetId);
     }
 
     public void getValue(@AnyRes int id, TypedValue outValue, boolean resolveRefs) {
-        mResources.getValue(fixRes(id, mAppContext.getResources().getResourceTypeName(id)), outValue, resolveRefs);
+        SkinCompatState state = currentState();
+        int targetId = fixRes(state, id);
+        state.getResources(id).getValue(targetId, outValue, resolveRefs);
     }
 
     public SkinCompatTheme newCompatTheme(Context context) {
-        SkinCompatTheme theme = mThemeCache.get(context);
+        SkinCompatScope scope = SkinCompatScope.current();
+        Map<Context, SkinCompatTheme> themeCache = scope != null ? scope.themeCache : mThemeCache;
+        SkinCompatTheme theme = themeCache.get(context);
         if (theme == null) {
             theme = new SkinCompatTheme(context);
-            mThemeCache.put(context, theme);
+            themeCache.put(context, theme);
+        }
+        return theme;
+    }
+
+    private static Resources.Theme newTheme(Resources resources, @StyleRes int themeId) {
+        Resources.Theme theme = resources.newTheme();
+        theme.applyStyle(themeId, true);
+        return theme;
+    }
+
+    private static Resources.Theme obtainSharedTheme(SkinCompatState state, @StyleRes int themeId) {
+        SparseArray<Resources.Theme> pool = state.themePool;
+        Resources.Theme theme = pool.get(themeId);
+        if (theme == null) {
+            theme = newTheme(state.resources, themeId);
+            pool.put(themeId, theme);
         }
         return theme;
     }
@@ -247,38 +1130,58 @@ public class SkinCompatResources {
         private Context mContext;
         private int mThemeResId;
         private Resources.Theme mTheme;
+        private int mGeneration = -1;
+        /**
+         * 主题属性 -> 解析后的值, 皮肤切换或配置变化后重新解析.
+         */
+        private int mAttrGeneration = -1;
+        private SparseIntArray mAttrColors;
+        private SparseArray<ColorStateList> mAttrColorStateLists;
+        private SparseArray<Drawable.ConstantState> mAttrDrawables;
 
         SkinCompatTheme(Context context) {
             mContext = context;
             if (context instanceof Activity) {
-                try {
-                    ActivityInfo info = context.getPackageManager().getActivityInfo(
-                            new ComponentName(context.getPackageName(), context.getClass().getName()), 0);
-                    if (info != null && info.theme != 0) {
-                        mThemeResId = info.theme;
-                    }
-                } catch (Exception e) {
-                }
+                mThemeResId = getActivityThemeResId((Activity) context);
             } else if (context instanceof SkinCompatContextWrapper) {
                 mThemeResId = ((SkinCompatContextWrapper) context).getThemeResId();
             }
             if (mThemeResId == 0) {
                 mThemeResId = context.getApplicationInfo().theme;
             }
-            reset(mResources);
         }
 
+        /**
+         * 获取皮肤包中对应的主题. 主题相同的Context共用同一实例, 不可修改.
+         *
+         * @return
+         */
         public Resources.Theme getTheme() {
+            return ensureTheme(currentState());
+        }
+
+        /**
+         * 皮肤切换后首次使用时才重建主题, 未再使用的主题(如后台页面)不产生开销.
+         */
+        private Resources.Theme ensureTheme(SkinCompatState state) {
+            if (mGeneration != state.generation) {
+                mGeneration = state.generation;
+                int themeId = getTargetResId(state, mThemeResId, "style");
+                mTheme = themeId != 0 ? obtainSharedTheme(state, themeId) : null;
+            }
             return mTheme;
         }
 
         public void reset(Resources resources) {
-            int themeId = getTargetResId(mThemeResId, "style");
-            if (themeId != 0) {
-                mTheme = resources.newTheme();
-                mTheme.applyStyle(themeId, true);
-            } else {
+            SkinCompatState state = currentState();
+            mGeneration = state.generation;
+            int themeId = getTargetResId(state, mThemeResId, "style");
+            if (themeId == 0) {
                 mTheme = null;
+            } else if (resources == state.resources) {
+                mTheme = obtainSharedTheme(state, themeId);
+            } else {
+                mTheme = newTheme(resources, themeId);
             }
         }
 
@@ -286,33 +1189,126 @@ public class SkinCompatResources {
                                                  @StyleableRes int[] attrs, boolean isHostAttrs,
                                                  @AttrRes int defStyleAttr, boolean isHostAttr,
                                                  @StyleRes int defStyleRes, boolean isHostRes) {
-            if (isDefaultSkin || mTheme == null) {
+            SkinCompatState state = currentState();
+            Resources.Theme theme = state.isDefaultSkin ? null : ensureTheme(state);
+            if (theme == null) {
                 return mContext.obtainStyledAttributes(set, attrs, defStyleAttr, defStyleRes);
             } else {
-                return mTheme.obtainStyledAttributes(set, fixResArray(attrs, isHostAttrs, "attr"),
-                        fixRes(defStyleAttr, isHostAttr, "attr"), fixRes(defStyleRes, isHostRes, "style"));
+                return theme.obtainStyledAttributes(set, fixResArray(state, attrs, isHostAttrs, "attr"),
+                        fixRes(state, defStyleAttr, isHostAttr, "attr"), fixRes(state, defStyleRes, isHostRes, "style"));
             }
         }
 
         public TypedArray obtainStyledAttributes(@StyleRes int resId, boolean isHostRes, @StyleableRes int[] attrs, boolean isHostAttrs)
                 throws Resources.NotFoundException {
-            if (isDefaultSkin || mTheme == null) {
+            SkinCompatState state = currentState();
+            Resources.Theme theme = state.isDefaultSkin ? null : ensureTheme(state);
+            if (theme == null) {
                 return mContext.obtainStyledAttributes(resId, attrs);
             } else {
-                return mTheme.obtainStyledAttributes(fixRes(resId, isHostRes, "style"), fixResArray(attrs, isHostAttrs, "attr"));
+                return theme.obtainStyledAttributes(fixRes(state, resId, isHostRes, "style"), fixResArray(state, attrs, isHostAttrs, "attr"));
             }
         }
 
         public TypedArray obtainStyledAttributes(@StyleableRes int[] attrs) throws Resources.NotFoundException {
-            if (isDefaultSkin || mTheme == null) {
+            return obtainStyledAttributes(currentState(), attrs);
+        }
+
+        private TypedArray obtainStyledAttributes(SkinCompatState state, int[] attrs) {
+            Resources.Theme theme = state.isDefaultSkin ? null : ensureTheme(state);
+            if (theme == null) {
                 return mContext.obtainStyledAttributes(attrs);
             } else {
-                return mTheme.obtainStyledAttributes(fixResArray(attrs, "attr"));
+                return theme.obtainStyledAttributes(fixResArray(state, attrs, "attr"));
             }
         }
 
+        /**
+         * 获取主题属性对应的颜色值, 结果按皮肤缓存.
+         *
+         * @param attr 主题属性, 如{@link android.R.attr#colorBackground}.
+         * @return 属性不存在时返回0.
+         */
+        public int getAttrColor(@AttrRes int attr) {
+            SkinCompatState state = ensureAttrCache();
+            int index = mAttrColors.indexOfKey(attr);
+            if (index >= 0) {
+                return mAttrColors.valueAt(index);
+            }
+            TypedArray a = obtainStyledAttributes(state, new int[]{attr});
+            int color = getStyledColor(state, a, 0);
+            a.recycle();
+            mAttrColors.put(attr, color);
+            return color;
+        }
+
+        /**
+         * 获取主题属性对应的{@link ColorStateList}, 结果按皮肤缓存.
+         *
+         * @param attr 主题属性.
+         * @return 属性不存在时返回null.
+         */
+        public ColorStateList getAttrColorStateList(@AttrRes int attr) {
+            SkinCompatState state = ensureAttrCache();
+            int index = mAttrColorStateLists.indexOfKey(attr);
+            if (index >= 0) {
+                return mAttrColorStateLists.valueAt(index);
+            }
+            TypedArray a = obtainStyledAttributes(state, new int[]{attr});
+            ColorStateList colorStateList = getStyledColorStateList(state, a, 0);
+            a.recycle();
+            mAttrColorStateLists.put(attr, colorStateList);
+            return colorStateList;
+        }
+
+        /**
+         * 与{@link #obtainStyledAttributes(SkinCompatState, int[])}返回的{@link TypedArray}所属的{@link Resources}一致.
+         */
+        private Resources getStyledResources(SkinCompatState state) {
+            return state.isDefaultSkin || ensureTheme(state) == null ? mContext.getResources() : state.resources;
+        }
+
+        /**
+         * 获取主题属性对应的Drawable, 缓存{@link Drawable.ConstantState}, 每次返回新的实例.
+         *
+         * @param attr 主题属性, 如{@link android.R.attr#windowBackground}.
+         * @return 属性不存在时返回null.
+         */
+        public Drawable getAttrDrawable(@AttrRes int attr) {
+            SkinCompatState state = ensureAttrCache();
+            int index = mAttrDrawables.indexOfKey(attr);
+            if (index >= 0) {
+                Drawable.ConstantState constantState = mAttrDrawables.valueAt(index);
+                return constantState == null ? null : constantState.newDrawable(getStyledResources(state));
+            }
+            TypedArray a = obtainStyledAttributes(state, new int[]{attr});
+            Drawable drawable = a.getDrawable(0);
+            a.recycle();
+            Drawable.ConstantState constantState = drawable == null ? null : drawable.getConstantState();
+            if (drawable == null || constantState != null) {
+                mAttrDrawables.put(attr, constantState);
+            }
+            return drawable;
+        }
+
+        private SkinCompatState ensureAttrCache() {
+            SkinCompatState state = currentState();
+            if (mAttrGeneration != state.generation || mAttrColors == null) {
+                mAttrGeneration = state.generation;
+                mAttrColors = new SparseIntArray();
+                mAttrColorStateLists = new SparseArray<>();
+                mAttrDrawables = new SparseArray<>();
+            }
+            return state;
+        }
+
+        void clearAttrCache() {
+            mAttrColors = null;
+        }
+
         public void resolveAttribute(@AttrRes int attr, TypedValue tv, boolean resolveRefs) {
-            mTheme.resolveAttribute(fixRes(attr, "attr"), tv, resolveRefs);
+            SkinCompatState state = currentState();
+            ensureTheme(state).resolveAttribute(fixRes(state, attr, "attr"), tv, resolveRefs);
         }
     }
 }
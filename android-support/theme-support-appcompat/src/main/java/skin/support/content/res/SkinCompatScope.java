@@ -0,0 +1,72 @@
+package skin.support.content.res;
+
+import android.content.Context;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * 在当前线程中临时使用指定皮肤, 不影响全局皮肤及已显示的界面. 用于在后台线程中加载皮肤预览, 用法:
+ * <pre>
+ * SkinCompatScope scope = SkinCompatManager.getInstance().newSkinScope(skinName, strategy);
+ * scope.enter();
+ * try {
+ *     View preview = LayoutInflater.from(context).inflate(R.layout.preview, null);
+ *     ...
+ * } finally {
+ *     scope.exit();
+ * }
+ * </pre>
+ * 皮肤包在皮肤加载线程中依次加载, 加载完成后每个作用域使用独立的缓存, 不同线程可同时使用各自的作用域加载布局;
+ * 同一作用域同一时间只能在一个线程中使用.
+ * 加载布局时应使用预览专用的Context, 避免与界面共用按Context缓存的主题及Drawable.
+ * 作用域中创建的View不注册到Activity的换肤列表中, 之后切换全局皮肤时不会更新.
+ */
+public final class SkinCompatScope {
+    private static final ThreadLocal<SkinCompatScope> sCurrent = new ThreadLocal<>();
+
+    final SkinCompatState state;
+    /**
+     * 作用域内的主题缓存, 与全局缓存分开.
+     */
+    final Map<Context, SkinCompatResources.SkinCompatTheme> themeCache = new WeakHashMap<>();
+    private SkinCompatScope mPrevious;
+
+    SkinCompatScope(SkinCompatState state) {
+        this.state = state;
+    }
+
+    /**
+     * @return 当前线程所在的作用域, 不在作用域中时返回null.
+     */
+    public static SkinCompatScope current() {
+        return sCurrent.get();
+    }
+
+    /**
+     * 当前线程开始使用该皮肤, 可嵌套.
+     */
+    public void enter() {
+        mPrevious = sCurrent.get();
+        sCurrent.set(this);
+    }
+
+    /**
+     * 当前线程恢复使用进入该作用域之前的皮肤.
+     */
+    public void exit() {
+        if (sCurrent.get() != this) {
+            return;
+        }
+        if (mPrevious == null) {
+            sCurrent.remove();
+        } else {
+            sCurrent.set(mPrevious);
+        }
+        mPrevious = null;
+    }
+
+    public SkinCompatState getSkinState() {
+        return state;
+    }
+}
@@ -0,0 +1,216 @@
+package skin.support.content.res;
+
+import android.content.res.ColorStateList;
+import android.content.res.Resources;
+import android.util.SparseArray;
+import android.util.SparseIntArray;
+
+import java.io.File;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import skin.support.SkinCompatManager;
+
+/**
+ * 皮肤状态快照.
+ * <p>
+ * 皮肤资源、包名、加载策略以及该皮肤下的各类缓存绑定在同一个对象上, 在后台线程中准备完成后,
+ * 由{@link SkinCompatResources}通过一次volatile写整体发布. 读取方每次只读取一次快照, 无需加锁即可获得一致的皮肤状态.
+ * <p>
+ * 非final字段只在发布之前赋值, 发布后不再修改. 按需填充的缓存只由使用该快照的线程(UI线程或{@link SkinCompatScope}所在线程)访问.
+ */
+public final class SkinCompatState {
+    final Resources resources;
+    final String pkgName;
+    final String skinName;
+    final String skinPath;
+    final SkinCompatManager.SkinLoaderStrategy strategy;
+    /**
+     * 基础皮肤是否为应用默认皮肤.
+     */
+    final boolean isDefaultBase;
+    final boolean isDefaultSkin;
+    final int generation;
+    /**
+     * 叠加层, 下标0为最上层.
+     */
+    final SkinCompatLayer[] overlays;
+    /**
+     * 创建时皮肤文件的大小及修改时间, 用于判断皮肤状态池中的皮肤是否已被替换.
+     */
+    long skinFileLength;
+    long skinFileModified;
+
+    /**
+     * 预先建立或读取的完整映射表, 应用资源ID -> 皮肤包资源ID, 发布后只读. 用于写入磁盘及复制快照.
+     */
+    SparseIntArray targetResIdIndex;
+    /**
+     * 与{@link #targetResIdIndex}同时建立的叠加层映射, 应用资源ID -> 叠加层下标, 发布后只读.
+     * 映射表中由叠加层提供的资源ID需从对应叠加层中查找, 复制快照时一并复制.
+     */
+    SparseIntArray targetLayerIndex;
+    /**
+     * 应用资源ID -> 皮肤包资源ID, 皮肤包中不存在的资源记为0. 以{@link #targetResIdIndex}为初始内容, 使用时按需填充.
+     */
+    SparseIntArray targetResIdCache = new SparseIntArray();
+    /**
+     * 皮肤包资源ID -> 应用资源ID, 应用中不存在的资源记为0.
+     */
+    SparseIntArray hostResIdCache = new SparseIntArray();
+    /**
+     * 应用资源ID -> 提供该资源的叠加层下标, 由基础皮肤提供的资源不记录.
+     */
+    final SparseIntArray targetLayerCache = new SparseIntArray();
+    /**
+     * 皮肤包资源名过滤器, 为null时每个资源都需实际查找.
+     */
+    SkinCompatEntryFilter entryFilter;
+    /**
+     * 颜色表皮肤, 优先于皮肤包中的颜色资源.
+     */
+    SkinCompatColorTable colorTable;
+    /**
+     * 应用styleable数组 -> 皮肤包中对应的属性数组, 以数组对象本身为key.
+     */
+    final Map<int[], int[]> styleableCache = new WeakHashMap<>();
+    /**
+     * 皮肤包主题ID -> 共享的只读主题, 主题相同的Context共用同一实例.
+     */
+    final SparseArray<Resources.Theme> themePool = new SparseArray<>();
+    /**
+     * 应用资源ID -> 解析后的颜色值. 配置变化时清空.
+     */
+    final SparseIntArray colorCache = new SparseIntArray();
+    final SparseArray<ColorStateList> colorStateListCache = new SparseArray<>();
+    /**
+     * 皮肤包Drawable缓存. 配置变化时清空.
+     */
+    final SkinCompatDrawableCache drawableCache;
+
+    SkinCompatState(Resources resources, String pkgName, String skinName, String skinPath,
+                    SkinCompatManager.SkinLoaderStrategy strategy, boolean isDefaultBase,
+                    SkinCompatLayer[] overlays, int generation, int drawableCacheSize) {
+        this.resources = resources;
+        this.pkgName = pkgName;
+        this.skinName = skinName;
+        this.skinPath = skinPath;
+        this.strategy = strategy;
+        this.isDefaultBase = isDefaultBase;
+        this.isDefaultSkin = isDefaultBase && overlays.length == 0;
+        this.overlays = overlays;
+        this.generation = generation;
+        this.drawableCache = new SkinCompatDrawableCache(drawableCacheSize);
+        if (skinPath != null) {
+            File file = new File(skinPath);
+            this.skinFileLength = file.length();
+            this.skinFileModified = file.lastModified();
+        }
+    }
+
+    /**
+     * 获取提供该资源的{@link Resources}.
+     *
+     * @param resId 应用资源ID.
+     */
+    Resources getResources(int resId) {
+        int layer = targetLayerCache.get(resId, -1);
+        return layer < 0 ? resources : overlays[layer].resources;
+    }
+
+    /**
+     * 复制皮肤状态, 共用皮肤资源及只读的过滤器、映射表和颜色表, 各类缓存相互独立.
+     */
+    SkinCompatState fork(int generation, int drawableCacheSize) {
+        SkinCompatState state = new SkinCompatState(resources, pkgName, skinName, skinPath, strategy,
+                isDefaultBase, overlays, generation, drawableCacheSize);
+        state.entryFilter = entryFilter;
+        state.colorTable = colorTable;
+        state.skinFileLength = skinFileLength;
+        state.skinFileModified = skinFileModified;
+        if (targetResIdIndex != null) {
+            state.setTargetResIdIndex(targetResIdIndex, targetLayerIndex);
+        }
+        return state;
+    }
+
+    /**
+     * 发布之前设置完整映射表.
+     *
+     * @param layerIndex 映射表中由叠加层提供的资源, 没有叠加层时为null.
+     */
+    void setTargetResIdIndex(SparseIntArray index, SparseIntArray layerIndex) {
+        targetResIdIndex = index;
+        targetLayerIndex = layerIndex;
+        targetResIdCache = index.clone();
+        targetLayerCache.clear();
+        if (layerIndex != null) {
+            for (int i = 0; i < layerIndex.size(); i++) {
+                targetLayerCache.put(layerIndex.keyAt(i), layerIndex.valueAt(i));
+            }
+        }
+    }
+
+    /**
+     * @return 皮肤文件在创建该状态之后被修改或删除.
+     */
+    boolean isSkinFileChanged() {
+        if (skinPath == null) {
+            return false;
+        }
+        File file = new File(skinPath);
+        return file.length() != skinFileLength || file.lastModified() != skinFileModified;
+    }
+
+    boolean hasOverlays() {
+        return overlays.length > 0;
+    }
+
+    /**
+     * 估算该皮肤状态占用的内存: 皮肤包文件大小及Drawable缓存.
+     */
+    long estimateSize() {
+        long size = drawableCache.size();
+        if (skinPath != null) {
+            size += new File(skinPath).length();
+        }
+        return size;
+    }
+
+    void clearValueCaches() {
+        colorCache.clear();
+        colorStateListCache.clear();
+        drawableCache.evictAll();
+    }
+
+    public Resources getResources() {
+        return resources;
+    }
+
+    public String getPkgName() {
+        return pkgName;
+    }
+
+    public String getSkinName() {
+        return skinName;
+    }
+
+    public SkinCompatManager.SkinLoaderStrategy getStrategy() {
+        return strategy;
+    }
+
+    public boolean isDefaultSkin() {
+        return isDefaultSkin;
+    }
+
+    public SkinCompatLayer[] getOverlays() {
+        return overlays.clone();
+    }
+
+    /**
+     * @return 皮肤版本号, 每个快照唯一.
+     */
+    public int getGeneration() {
+        return generation;
+    }
+}
@@ -75,23 +75,27 @@ public class SkinCompatTypedValue {
     }
 
     public int getColor() {
+        return getColor(null);
+    }
+
+    /**
+     * @param styleable 同组属性共用的{@link TypedArray}, 为null时单独获取.
+     */
+    int getColor(TypedArray styleable) {
         int color = 0;
         if (!isValid()) {
             return color;
         }
         if (isTypeNull()) {
-            TypedArray a;
-            if (defStyleAttr != INVALID_ID || defStyleRes != INVALID_ID) {
-                a = SkinCompatResources.getInstance().obtainStyledAttributes(context, set, attrs, defStyleAttr, defStyleRes);
-            } else {
-                a = SkinCompatResources.getInstance().obtainStyledAttributes(context, attrs);
+            TypedArray a = styleable != null ? styleable : obtainStyleable();
+            color = SkinCompatResources.getInstance().getStyledColor(a, index);
+            if (a != styleable) {
+                a.recycle();
             }
-            color = a.getColor(index, 0);
-            a.recycle();
         } else if (isTypeAttr()) {
             if (data != INVALID_ID) {
                 TypedArray a = SkinCompatResources.getInstance().obtainStyledAttributes(context, new int[]{data});
-                color = a.getColor(0, 0);
+                color = SkinCompatResources.getInstance().getStyledColor(a, 0);
                 a.recycle();
             }
         } else if (isTypeRes()) {
@@ -103,23 +107,24 @@ public class SkinCompatTypedValue {
     }
 
     public ColorStateList getColorStateList() {
+        return getColorStateList(null);
+    }
+
+    ColorStateList getColorStateList(TypedArray styleable) {
         ColorStateList colorStateList = null;
         if (!isValid()) {
             return colorStateList;
         }
         if (isTypeNull()) {
-            TypedArray a;
-            if (defStyleAttr != INVALID_ID || defStyleRes != INVALID_ID) {
-                a = SkinCompatResources.getInstance().obtainStyledAttributes(context, set, attrs, defStyleAttr, defStyleRes);
-            } else {
-                a = SkinCompatResources.getInstance().obtainStyledAttributes(context, attrs);
+            TypedArray a = styleable != null ? styleable : obtainStyleable();
+            colorStateList = SkinCompatResources.getInstance().getStyledColorStateList(a, index);
+            if (a != styleable) {
+                a.recycle();
             }
-            colorStateList = a.getColorStateList(index);
-            a.recycle();
         } else if (isTypeAttr()) {
             if (data != INVALID_ID) {
                 TypedArray a = SkinCompatResources.getInstance().obtainStyledAttributes(context, new int[]{data});
-                colorStateList = a.getColorStateList(0);
+                colorStateList = SkinCompatResources.getInstance().getStyledColorStateList(a, 0);
                 a.recycle();
             }
         } else if (isTypeRes()) {
@@ -131,20 +136,19 @@ public class SkinCompatTypedValue {
     }
 
     public Drawable getDrawable() {
+        return getDrawable(null);
+    }
+
+    Drawable getDrawable(TypedArray styleable) {
         Drawable drawable = null;
         if (!isValid()) {
             return drawable;
         }
         if (isTypeNull()) {
-            TypedArray a;
-            if (defStyleAttr != INVALID_ID || defStyleRes != INVALID_ID) {
-                a = SkinCompatResources.getInstance().obtainStyledAttributes(context, set, attrs, defStyleAttr, defStyleRes);
-            } else {
-                a = SkinCompatResources.getInstance().obtainStyledAttributes(context, attrs);
-            }
+            TypedArray a = styleable != null ? styleable : obtainStyleable();
             int resourceId = a.getResourceId(index, INVALID_ID);
             if (resourceId != INVALID_ID && resourceId >> 24 != 0x1) {
-                int resId = context.getResources().getIdentifier(a.getResources().getResourceEntryName(resourceId), a.getResources().getResourceTypeName(resourceId), context.getPackageName());
+                int resId = SkinCompatResources.getInstance().getHostResId(a.getResources(), resourceId);
                 if (resId != INVALID_ID) {
                     resourceId = resId;
                     drawable = SkinCompatDrawableManager.get().getDrawable(context, resourceId);
@@ -152,13 +156,15 @@ public class SkinCompatTypedValue {
             } else {
                 drawable = a.getDrawable(index);
             }
-            a.recycle();
+            if (a != styleable) {
+                a.recycle();
+            }
         } else if (isTypeAttr()) {
             if (data != INVALID_ID) {
                 TypedArray a = SkinCompatResources.getInstance().obtainStyledAttributes(context, new int[]{data});
                 int resourceId = a.getResourceId(0, INVALID_ID);
                 if (resourceId != INVALID_ID && resourceId >> 24 != 0x1) {
-                    int resId = context.getResources().getIdentifier(a.getResources().getResourceEntryName(resourceId), a.getResources().getResourceTypeName(resourceId), context.getPackageName());
+                    int resId = SkinCompatResources.getInstance().getHostResId(a.getResources(), resourceId);
                     if (resId != INVALID_ID) {
                         resourceId = resId;
                         drawable = SkinCompatDrawableManager.get().getDrawable(context, resourceId);
@@ -197,6 +203,53 @@ public class SkinCompatTypedValue {
         return tint;
     }
 
+    /**
+     * 从同组属性共用的皮肤{@link TypedArray}中获取着色, 资源ID映射回应用资源ID后查找.
+     * 皮肤包独有的资源在应用中没有对应ID, 此时与{@link #getTintList()}相同, 从应用主题中获取.
+     */
+    ColorStateList getTintList(TypedArray styleable) {
+        ColorStateList tint = null;
+        if (!isValid()) {
+            return null;
+        }
+        if (isTypeNull()) {
+            if (styleable.hasValue(index)) {
+                int resourceId = styleable.getResourceId(index, INVALID_ID);
+                if (resourceId != INVALID_ID && resourceId >> 24 != 0x1) {
+                    int resId = SkinCompatResources.getInstance().getHostResId(styleable.getResources(), resourceId);
+                    if (resId == INVALID_ID) {
+                        return getTintList();
+                    }
+                    resourceId = resId;
+                }
+                tint = SkinCompatDrawableManager.get().getTintList(context, resourceId);
+            }
+        }
+        return tint;
+    }
+
+    /**
+     * 属性为{@link #TYPE_NULL}时, 从皮肤主题中获取所在styleable的{@link TypedArray}.
+     */
+    TypedArray obtainStyleable() {
+        if (defStyleAttr != INVALID_ID || defStyleRes != INVALID_ID) {
+            return SkinCompatResources.getInstance().obtainStyledAttributes(context, set, attrs, defStyleAttr, defStyleRes);
+        } else {
+            return SkinCompatResources.getInstance().obtainStyledAttributes(context, attrs);
+        }
+    }
+
+    /**
+     * 是否与另一属性来自同一styleable及默认样式, 可共用同一{@link TypedArray}.
+     */
+    boolean isSameStyleable(SkinCompatTypedValue other) {
+        return context == other.context
+                && set == other.set
+                && attrs == other.attrs
+                && defStyleAttr == other.defStyleAttr
+                && defStyleRes == other.defStyleRes;
+    }
+
     public TypedArray obtainStyledAttributes(int[] as) {
         return obtainStyledAttributes(as, INVALID_ID);
     }
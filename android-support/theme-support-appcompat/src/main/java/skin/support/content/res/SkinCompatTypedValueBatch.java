@@ -0,0 +1,78 @@
+package skin.support.content.res;
+
+import android.content.res.ColorStateList;
+import android.content.res.TypedArray;
+import android.graphics.drawable.Drawable;
+
+import java.util.ArrayList;
+
+/**
+ * 批量解析{@link SkinCompatTypedValue}.
+ * <p>
+ * 来自同一styleable及默认样式的属性共用一次obtainStyledAttributes, 用法:
+ * <pre>
+ * SkinCompatTypedValueBatch batch = SkinCompatTypedValueBatch.begin();
+ * try {
+ *     Drawable left = batch.getDrawable(leftValue);
+ *     Drawable right = batch.getDrawable(rightValue);
+ * } finally {
+ *     batch.end();
+ * }
+ * </pre>
+ * 只能在同一线程中使用, {@link #end()}之后不可再使用.
+ */
+public final class SkinCompatTypedValueBatch {
+    private final ArrayList<SkinCompatTypedValue> mKeys = new ArrayList<>(2);
+    private final ArrayList<TypedArray> mStyleables = new ArrayList<>(2);
+
+    private SkinCompatTypedValueBatch() {
+    }
+
+    public static SkinCompatTypedValueBatch begin() {
+        return new SkinCompatTypedValueBatch();
+    }
+
+    public int getColor(SkinCompatTypedValue value) {
+        return value.getColor(getStyleable(value));
+    }
+
+    public ColorStateList getColorStateList(SkinCompatTypedValue value) {
+        return value.getColorStateList(getStyleable(value));
+    }
+
+    public Drawable getDrawable(SkinCompatTypedValue value) {
+        return value.getDrawable(getStyleable(value));
+    }
+
+    public ColorStateList getTintList(SkinCompatTypedValue value) {
+        TypedArray styleable = getStyleable(value);
+        return styleable == null ? value.getTintList() : value.getTintList(styleable);
+    }
+
+    /**
+     * 回收本次解析获取的{@link TypedArray}.
+     */
+    public void end() {
+        for (TypedArray styleable : mStyleables) {
+            styleable.recycle();
+        }
+        mStyleables.clear();
+        mKeys.clear();
+    }
+
+    private TypedArray getStyleable(SkinCompatTypedValue value) {
+        if (!value.isValid() || !value.isTypeNull()
+                || value.context == null || value.attrs == null) {
+            return null;
+        }
+        for (int i = 0; i < mKeys.size(); i++) {
+            if (mKeys.get(i).isSameStyleable(value)) {
+                return mStyleables.get(i);
+            }
+        }
+        TypedArray styleable = value.obtainStyleable();
+        mKeys.add(value);
+        mStyleables.add(styleable);
+        return styleable;
+    }
+}
@@ -1,21 +1,32 @@
 package skin.support.load;
 
 import android.content.Context;
+import android.content.pm.PackageInfo;
 
+import java.io.Closeable;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 
 import skin.support.SkinCompatManager;
+import skin.support.SkinLoadReport;
 import skin.support.utils.SkinConstants;
 import skin.support.utils.SkinFileUtils;
 
 public class SkinAssetsLoader extends SkinSDCardLoader {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
     @Override
     protected String getSkinPath(Context context, String skinName) {
-        return copySkinFromAssets(context, skinName);
+        long start = SkinLoadReport.startPhase();
+        try {
+            return copySkinFromAssets(context, skinName);
+        } finally {
+            SkinLoadReport.endPhase(SkinLoadReport.PHASE_COPY, start);
+        }
     }
 
     @Override
@@ -28,22 +39,98 @@ public class SkinAssetsLoader extends SkinSDCardLoader {
         return SkinCompatManager.SKIN_LOADER_STRATEGY_ASSETS;
     }
 
+    /**
+     * 将assets中的皮肤包复制到缓存目录. 应用版本及皮肤包大小均未变化时, 直接使用已复制的皮肤包.
+     */
     private String copySkinFromAssets(Context context, String name) {
-        String skinPath = new File(SkinFileUtils.getSkinDir(context), name).getAbsolutePath();
+        File skinFile = new File(SkinFileUtils.getSkinDir(context), name);
+        File stampFile = new File(skinFile.getPath() + SkinConstants.SKIN_STAMP_SUFFIX);
+        InputStream is = null;
+        OutputStream os = null;
+        File tmp = new File(skinFile.getPath() + ".tmp");
         try {
-            InputStream is = context.getAssets().open(
+            is = context.getAssets().open(
                     SkinConstants.SKIN_DEPLOY_PATH + File.separator + name);
-            OutputStream os = new FileOutputStream(skinPath);
+            // AssetInputStream.available() 返回资源的总长度.
+            long size = is.available();
+            String stamp = getAppStamp(context) + ":" + size;
+            if (skinFile.length() == size && stamp.equals(readStamp(stampFile))) {
+                SkinLoadReport.recordCopySkipped();
+                return skinFile.getAbsolutePath();
+            }
+            stampFile.delete();
+            os = new FileOutputStream(tmp);
             int byteCount;
-            byte[] bytes = new byte[1024];
+            byte[] bytes = new byte[BUFFER_SIZE];
             while ((byteCount = is.read(bytes)) != -1) {
                 os.write(bytes, 0, byteCount);
             }
+            SkinLoadReport.recordBytesCopied(size);
             os.close();
-            is.close();
+            os = null;
+            if (tmp.renameTo(skinFile)) {
+                writeStamp(stampFile, stamp);
+            }
         } catch (IOException e) {
             e.printStackTrace();
+        } finally {
+            closeQuietly(is);
+            closeQuietly(os);
+            tmp.delete();
+        }
+        return skinFile.getAbsolutePath();
+    }
+
+    private static String getAppStamp(Context context) {
+        try {
+            PackageInfo info = context.getPackageManager().getPackageInfo(context.getPackageName(), 0);
+            return info.versionCode + ":" + info.lastUpdateTime;
+        } catch (Exception e) {
+            // 无法获取应用版本时每次重新复制.
+            return String.valueOf(System.nanoTime());
+        }
+    }
+
+    private static String readStamp(File stampFile) {
+        if (!stampFile.isFile()) {
+            return null;
+        }
+        InputStream is = null;
+        try {
+            is = new FileInputStream(stampFile);
+            byte[] bytes = new byte[(int) stampFile.length()];
+            int offset = 0;
+            int byteCount;
+            while (offset < bytes.length
+                    && (byteCount = is.read(bytes, offset, bytes.length - offset)) != -1) {
+                offset += byteCount;
+            }
+            return new String(bytes, 0, offset, "UTF-8");
+        } catch (IOException e) {
+            return null;
+        } finally {
+            closeQuietly(is);
+        }
+    }
+
+    private static void writeStamp(File stampFile, String stamp) {
+        OutputStream os = null;
+        try {
+            os = new FileOutputStream(stampFile);
+            os.write(stamp.getBytes("UTF-8"));
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            closeQuietly(os);
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException ignored) {
+            }
         }
-        return skinPath;
     }
 }
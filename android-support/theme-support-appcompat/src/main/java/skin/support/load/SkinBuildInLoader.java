@@ -1,22 +1,77 @@
 package skin.support.load;
 
 import android.content.Context;
+import android.content.res.Resources;
+import android.util.SparseIntArray;
 
 import skin.support.SkinCompatManager;
 import skin.support.SkinCompatManager.SkinLoaderStrategy;
+import skin.support.SkinLoadReport;
 import skin.support.content.res.SkinCompatResources;
 
 public class SkinBuildInLoader implements SkinLoaderStrategy {
+    private static final int APP_PACKAGE_ID = 0x7f;
+    /**
+     * 加载时预先计算映射的资源类型, 其他类型在使用时查找.
+     */
+    private static final String[] SKIN_RES_TYPES = {"color", "drawable", "mipmap", "style"};
+
     @Override
     public String loadSkinInBackground(Context context, String skinName) {
+        long start = SkinLoadReport.startPhase();
+        SparseIntArray targetResIds = buildTargetResIds(context, skinName);
+        SkinLoadReport.endPhase(SkinLoadReport.PHASE_INDEX, start);
         SkinCompatResources.getInstance().setupSkin(
                 context.getResources(),
                 context.getPackageName(),
                 skinName,
-                this);
+                this,
+                targetResIds);
         return skinName;
     }
 
+    /**
+     * 遍历应用资源, 建立 资源ID -> 资源ID(资源名_皮肤名) 映射表. 资源ID按升序遍历, 直接追加到表尾.
+     */
+    private static SparseIntArray buildTargetResIds(Context context, String skinName) {
+        Resources resources = context.getResources();
+        String pkgName = context.getPackageName();
+        String suffix = "_" + skinName;
+        SparseIntArray table = new SparseIntArray();
+        for (int typeId = 1; typeId <= 0xff; typeId++) {
+            int typeBase = (APP_PACKAGE_ID << 24) | (typeId << 16);
+            String type;
+            try {
+                type = resources.getResourceTypeName(typeBase);
+            } catch (Resources.NotFoundException e) {
+                break;
+            }
+            if (!isSkinResType(type)) {
+                continue;
+            }
+            for (int entryId = 0; entryId <= 0xffff; entryId++) {
+                int resId = typeBase | entryId;
+                String entryName;
+                try {
+                    entryName = resources.getResourceEntryName(resId);
+                } catch (Resources.NotFoundException e) {
+                    break;
+                }
+                table.append(resId, resources.getIdentifier(entryName + suffix, type, pkgName));
+            }
+        }
+        return table;
+    }
+
+    private static boolean isSkinResType(String type) {
+        for (String skinType : SKIN_RES_TYPES) {
+            if (skinType.equals(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public String getTargetResourceEntryName(Context context, String skinName, int resId) {
         return context.getResources().getResourceEntryName(resId) + "_" + skinName;
@@ -0,0 +1,44 @@
+package skin.support.load;
+
+import android.content.Context;
+
+import java.io.File;
+
+import skin.support.SkinCompatManager;
+import skin.support.SkinCompatManager.SkinLoaderStrategy;
+import skin.support.content.res.SkinCompatColorTable;
+import skin.support.content.res.SkinCompatResources;
+import skin.support.utils.SkinConstants;
+import skin.support.utils.SkinFileUtils;
+
+/**
+ * 颜色表皮肤加载策略, 文件格式见{@link SkinCompatColorTable}.
+ * 默认从皮肤目录中读取 皮肤名 + {@link SkinConstants#SKIN_COLOR_TABLE_SUFFIX} 文件, 可重写{@link #getSkinPath(Context, String)}.
+ */
+public class SkinColorTableLoader implements SkinLoaderStrategy {
+    @Override
+    public String loadSkinInBackground(Context context, String skinName) {
+        String skinPath = getSkinPath(context, skinName);
+        SkinCompatColorTable colorTable = SkinCompatColorTable.read(context, new File(skinPath));
+        if (colorTable == null) {
+            return null;
+        }
+        SkinCompatResources.getInstance().setupSkin(skinName, colorTable, skinPath, this);
+        return skinName;
+    }
+
+    protected String getSkinPath(Context context, String skinName) {
+        return new File(SkinFileUtils.getSkinDir(context),
+                skinName + SkinConstants.SKIN_COLOR_TABLE_SUFFIX).getAbsolutePath();
+    }
+
+    @Override
+    public String getTargetResourceEntryName(Context context, String skinName, int resId) {
+        return null;
+    }
+
+    @Override
+    public int getType() {
+        return SkinCompatManager.SKIN_LOADER_STRATEGY_COLOR_TABLE;
+    }
+}
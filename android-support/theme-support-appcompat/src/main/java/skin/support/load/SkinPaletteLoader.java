@@ -0,0 +1,91 @@
+package skin.support.load;
+
+import android.content.Context;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import skin.support.SkinCompatManager;
+import skin.support.content.res.SkinCompatColorTable;
+import skin.support.content.res.SkinCompatResources;
+import skin.support.utils.SkinConstants;
+import skin.support.utils.SkinFileUtils;
+
+/**
+ * 调色板皮肤加载策略. 已注册的调色板直接使用内存中的颜色表, 否则读取之前保存的调色板文件(如应用重启后).
+ */
+public class SkinPaletteLoader extends SkinColorTableLoader {
+    private final Map<String, SkinCompatColorTable> mPalettes = new HashMap<>();
+
+    @Override
+    public String loadSkinInBackground(Context context, String skinName) {
+        SkinCompatColorTable colorTable;
+        synchronized (mPalettes) {
+            colorTable = mPalettes.get(skinName);
+        }
+        if (colorTable == null) {
+            return super.loadSkinInBackground(context, skinName);
+        }
+        SkinCompatResources.getInstance().setupSkin(skinName, colorTable, this);
+        return skinName;
+    }
+
+    /**
+     * 注册调色板.
+     *
+     * @param data 序列化后的调色板, 见{@link skin.support.content.res.SkinCompatPalette#toByteArray(Context)}.
+     * @return 格式错误时返回false.
+     */
+    public boolean putPalette(Context context, String skinName, byte[] data) {
+        SkinCompatColorTable colorTable = SkinCompatColorTable.read(context, data);
+        if (colorTable == null) {
+            return false;
+        }
+        synchronized (mPalettes) {
+            mPalettes.put(skinName, colorTable);
+        }
+        return true;
+    }
+
+    /**
+     * 保存调色板, 应用重启后恢复. 需在后台线程中调用.
+     */
+    public void savePalette(Context context, String skinName, byte[] data) {
+        File file = new File(getSkinPath(context, skinName));
+        File tmp = new File(file.getPath() + ".tmp");
+        FileOutputStream os = null;
+        try {
+            os = new FileOutputStream(tmp);
+            os.write(data);
+            os.close();
+            os = null;
+            if (!tmp.renameTo(file)) {
+                tmp.delete();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            tmp.delete();
+        } finally {
+            if (os != null) {
+                try {
+                    os.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    @Override
+    protected String getSkinPath(Context context, String skinName) {
+        return new File(SkinFileUtils.getSkinDir(context),
+                skinName + SkinConstants.SKIN_PALETTE_SUFFIX).getAbsolutePath();
+    }
+
+    @Override
+    public int getType() {
+        return SkinCompatManager.SKIN_LOADER_STRATEGY_PALETTE;
+    }
+}
@@ -8,6 +8,7 @@ import java.io.File;
 
 import skin.support.SkinCompatManager;
 import skin.support.SkinCompatManager.SkinLoaderStrategy;
+import skin.support.SkinLoadReport;
 import skin.support.content.res.SkinCompatResources;
 import skin.support.utils.SkinFileUtils;
 
@@ -16,13 +17,18 @@ public abstract class SkinSDCardLoader implements SkinLoaderStrategy {
     public String loadSkinInBackground(Context context, String skinName) {
         String skinPkgPath = getSkinPath(context, skinName);
         if (SkinFileUtils.isFileExists(skinPkgPath)) {
+            long start = SkinLoadReport.startPhase();
             String pkgName = SkinCompatManager.getInstance().getSkinPackageName(skinPkgPath);
+            SkinLoadReport.endPhase(SkinLoadReport.PHASE_PARSE, start);
+            start = SkinLoadReport.startPhase();
             Resources resources = SkinCompatManager.getInstance().getSkinResources(skinPkgPath);
+            SkinLoadReport.endPhase(SkinLoadReport.PHASE_RESOURCES, start);
             if (resources != null && !TextUtils.isEmpty(pkgName)) {
                 SkinCompatResources.getInstance().setupSkin(
                         resources,
                         pkgName,
                         skinName,
+                        skinPkgPath,
                         this);
                 return skinName;
             }
@@ -0,0 +1,303 @@
+package skin.support.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * 皮肤包文件工具.
+ * <p>
+ * 直接解析皮肤包中二进制AndroidManifest.xml的根节点获取包名, 无需{@link android.content.pm.PackageManager}解析整个安装包.
+ * 解析resources.arsc获取皮肤包中的所有资源名.
+ */
+public class SkinApkUtils {
+    private static final String MANIFEST_NAME = "AndroidManifest.xml";
+    private static final String RESOURCES_NAME = "resources.arsc";
+    private static final int RES_STRING_POOL_TYPE = 0x0001;
+    private static final int RES_TABLE_TYPE = 0x0002;
+    private static final int RES_XML_TYPE = 0x0003;
+    private static final int RES_TABLE_PACKAGE_TYPE = 0x0200;
+    private static final int RES_TABLE_TYPE_TYPE = 0x0201;
+    private static final int TYPE_FLAG_SPARSE = 0x01;
+    private static final int TYPE_FLAG_OFFSET16 = 0x02;
+    private static final int ENTRY_FLAG_COMPACT = 0x08;
+    private static final int NO_ENTRY16 = 0xffff;
+    private static final int RES_XML_START_ELEMENT_TYPE = 0x0102;
+    private static final int UTF8_FLAG = 1 << 8;
+    private static final int TYPE_STRING = 0x03;
+    private static final int NO_INDEX = 0xffffffff;
+
+    /**
+     * 皮肤包路径 -> 包名, 文件修改时间或大小变化后重新解析.
+     */
+    private static final Map<String, CacheEntry> sCache = new HashMap<>();
+
+    /**
+     * 获取皮肤包包名.
+     *
+     * @param apkPath 皮肤包路径.
+     * @return 解析失败时返回null.
+     */
+    public static String getPackageName(String apkPath) {
+        File file = new File(apkPath);
+        long lastModified = file.lastModified();
+        long length = file.length();
+        synchronized (sCache) {
+            CacheEntry entry = sCache.get(apkPath);
+            if (entry != null && entry.lastModified == lastModified && entry.length == length) {
+                return entry.pkgName;
+            }
+        }
+        String pkgName = null;
+        try {
+            pkgName = readPackageName(readManifest(file));
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        if (pkgName != null) {
+            synchronized (sCache) {
+                sCache.put(apkPath, new CacheEntry(lastModified, length, pkgName));
+            }
+        }
+        return pkgName;
+    }
+
+    /**
+     * 获取皮肤包中的所有资源, 包括资源ID不连续的资源.
+     *
+     * @param apkPath 皮肤包路径.
+     * @return [类型, 资源名]列表, 解析失败时返回null.
+     */
+    public static List<String[]> getResourceEntries(String apkPath) {
+        try {
+            return readResourceEntries(readEntry(new File(apkPath), RESOURCES_NAME));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    private static ByteBuffer readManifest(File file) throws IOException {
+        return readEntry(file, MANIFEST_NAME);
+    }
+
+    private static ByteBuffer readEntry(File file, String name) throws IOException {
+        ZipFile zipFile = new ZipFile(file);
+        try {
+            ZipEntry entry = zipFile.getEntry(name);
+            if (entry == null) {
+                return null;
+            }
+            InputStream is = zipFile.getInputStream(entry);
+            try {
+                long size = entry.getSize();
+                ByteArrayOutputStream os = new ByteArrayOutputStream(size > 0 ? (int) size : 8192);
+                byte[] buffer = new byte[8192];
+                int byteCount;
+                while ((byteCount = is.read(buffer)) != -1) {
+                    os.write(buffer, 0, byteCount);
+                }
+                return ByteBuffer.wrap(os.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+            } finally {
+                is.close();
+            }
+        } finally {
+            zipFile.close();
+        }
+    }
+
+    /**
+     * 依次读取字符串池及第一个元素(manifest)的package属性.
+     */
+    private static String readPackageName(ByteBuffer buffer) {
+        if (buffer == null || buffer.getShort(0) != RES_XML_TYPE) {
+            return null;
+        }
+        int offset = buffer.getShort(2) & 0xffff;
+        int limit = buffer.limit();
+        int stringPool = -1;
+        while (offset + 8 <= limit) {
+            int type = buffer.getShort(offset) & 0xffff;
+            int headerSize = buffer.getShort(offset + 2) & 0xffff;
+            int size = buffer.getInt(offset + 4);
+            if (size <= 0 || offset + size > limit) {
+                return null;
+            }
+            if (type == RES_STRING_POOL_TYPE) {
+                stringPool = offset;
+            } else if (type == RES_XML_START_ELEMENT_TYPE) {
+                if (stringPool < 0) {
+                    return null;
+                }
+                int ext = offset + headerSize;
+                int attributeStart = buffer.getShort(ext + 8) & 0xffff;
+                int attributeSize = buffer.getShort(ext + 10) & 0xffff;
+                int attributeCount = buffer.getShort(ext + 12) & 0xffff;
+                for (int i = 0; i < attributeCount; i++) {
+                    int attr = ext + attributeStart + i * attributeSize;
+                    int ns = buffer.getInt(attr);
+                    int name = buffer.getInt(attr + 4);
+                    if (ns != NO_INDEX || !"package".equals(getString(buffer, stringPool, name))) {
+                        continue;
+                    }
+                    int rawValue = buffer.getInt(attr + 8);
+                    if (rawValue != NO_INDEX) {
+                        return getString(buffer, stringPool, rawValue);
+                    }
+                    if ((buffer.get(attr + 15) & 0xff) == TYPE_STRING) {
+                        return getString(buffer, stringPool, buffer.getInt(attr + 16));
+                    }
+                    return null;
+                }
+                // 只需要根节点.
+                return null;
+            }
+            offset += size;
+        }
+        return null;
+    }
+
+    /**
+     * 遍历资源表中每个包的每个类型块, 资源项的key为资源名在包的资源名字符串池中的下标.
+     */
+    private static List<String[]> readResourceEntries(ByteBuffer buffer) {
+        if (buffer == null || buffer.getShort(0) != RES_TABLE_TYPE) {
+            return null;
+        }
+        List<String[]> entries = new ArrayList<>();
+        int limit = buffer.limit();
+        int offset = buffer.getShort(2) & 0xffff;
+        while (offset + 8 <= limit) {
+            int type = buffer.getShort(offset) & 0xffff;
+            int size = buffer.getInt(offset + 4);
+            if (size <= 0 || offset + size > limit) {
+                return null;
+            }
+            if (type == RES_TABLE_PACKAGE_TYPE && !readPackageEntries(buffer, offset, size, entries)) {
+                return null;
+            }
+            offset += size;
+        }
+        return entries;
+    }
+
+    private static boolean readPackageEntries(ByteBuffer buffer, int pkg, int pkgSize, List<String[]> entries) {
+        int headerSize = buffer.getShort(pkg + 2) & 0xffff;
+        // ResTable_package: header(8) id(4) name(256) typeStrings(4) lastPublicType(4) keyStrings(4)
+        int typeStrings = pkg + buffer.getInt(pkg + 268);
+        int keyStrings = pkg + buffer.getInt(pkg + 276);
+        int offset = pkg + headerSize;
+        int end = pkg + pkgSize;
+        while (offset + 8 <= end) {
+            int type = buffer.getShort(offset) & 0xffff;
+            int size = buffer.getInt(offset + 4);
+            if (size <= 0 || offset + size > end) {
+                return false;
+            }
+            if (type == RES_TABLE_TYPE_TYPE) {
+                String typeName = getString(buffer, typeStrings, (buffer.get(offset + 8) & 0xff) - 1);
+                if (typeName == null) {
+                    return false;
+                }
+                int flags = buffer.get(offset + 9) & 0xff;
+                int entryCount = buffer.getInt(offset + 12);
+                int entriesStart = offset + buffer.getInt(offset + 16);
+                int offsets = offset + (buffer.getShort(offset + 2) & 0xffff);
+                for (int i = 0; i < entryCount; i++) {
+                    int entryOffset;
+                    if ((flags & TYPE_FLAG_SPARSE) != 0) {
+                        // 稀疏类型: [资源项下标(u16), 偏移/4(u16)]
+                        entryOffset = (buffer.getShort(offsets + i * 4 + 2) & 0xffff) * 4;
+                    } else if ((flags & TYPE_FLAG_OFFSET16) != 0) {
+                        int value = buffer.getShort(offsets + i * 2) & 0xffff;
+                        if (value == NO_ENTRY16) {
+                            continue;
+                        }
+                        entryOffset = value * 4;
+                    } else {
+                        entryOffset = buffer.getInt(offsets + i * 4);
+                        if (entryOffset == NO_INDEX) {
+                            continue;
+                        }
+                    }
+                    int entry = entriesStart + entryOffset;
+                    int entryFlags = buffer.getShort(entry + 2) & 0xffff;
+                    int key = (entryFlags & ENTRY_FLAG_COMPACT) != 0
+                            ? buffer.getShort(entry) & 0xffff : buffer.getInt(entry + 4);
+                    String name = getString(buffer, keyStrings, key);
+                    if (name == null) {
+                        return false;
+                    }
+                    entries.add(new String[]{typeName, name});
+                }
+            }
+            offset += size;
+        }
+        return true;
+    }
+
+    private static String getString(ByteBuffer buffer, int pool, int index) {
+        int stringCount = buffer.getInt(pool + 8);
+        if (index < 0 || index >= stringCount) {
+            return null;
+        }
+        int headerSize = buffer.getShort(pool + 2) & 0xffff;
+        int flags = buffer.getInt(pool + 16);
+        int stringsStart = buffer.getInt(pool + 20);
+        int offset = pool + stringsStart + buffer.getInt(pool + headerSize + index * 4);
+        try {
+            if ((flags & UTF8_FLAG) != 0) {
+                // utf16长度, utf8长度, 各占1或2字节.
+                offset += (buffer.get(offset) & 0x80) != 0 ? 2 : 1;
+                int length = buffer.get(offset) & 0xff;
+                if ((length & 0x80) != 0) {
+                    length = ((length & 0x7f) << 8) | (buffer.get(offset + 1) & 0xff);
+                    offset += 2;
+                } else {
+                    offset += 1;
+                }
+                byte[] bytes = new byte[length];
+                for (int i = 0; i < length; i++) {
+                    bytes[i] = buffer.get(offset + i);
+                }
+                return new String(bytes, "UTF-8");
+            } else {
+                int length = buffer.getShort(offset) & 0xffff;
+                if ((length & 0x8000) != 0) {
+                    length = ((length & 0x7fff) << 16) | (buffer.getShort(offset + 2) & 0xffff);
+                    offset += 4;
+                } else {
+                    offset += 2;
+                }
+                char[] chars = new char[length];
+                for (int i = 0; i < length; i++) {
+                    chars[i] = buffer.getChar(offset + i * 2);
+                }
+                return new String(chars);
+            }
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static class CacheEntry {
+        final long lastModified;
+        final long length;
+        final String pkgName;
+
+        CacheEntry(long lastModified, long length, String pkgName) {
+            this.lastModified = lastModified;
+            this.length = length;
+            this.pkgName = pkgName;
+        }
+    }
+}
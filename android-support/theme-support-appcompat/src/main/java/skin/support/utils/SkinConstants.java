@@ -6,4 +6,8 @@ package skin.support.utils;
 
 public class SkinConstants {
     public static final String SKIN_DEPLOY_PATH = "skins";
+    public static final String SKIN_INDEX_SUFFIX = ".idx";
+    public static final String SKIN_STAMP_SUFFIX = ".stamp";
+    public static final String SKIN_COLOR_TABLE_SUFFIX = ".ctab";
+    public static final String SKIN_PALETTE_SUFFIX = ".palette";
 }
@@ -5,6 +5,10 @@ import android.os.Environment;
 import android.text.TextUtils;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.CRC32;
 
 /**
  * Created by ximsfei on 17-1-10.
@@ -34,4 +38,37 @@ public class SkinFileUtils {
     public static boolean isFileExists(String path) {
         return !TextUtils.isEmpty(path) && new File(path).exists();
     }
+
+    /**
+     * 计算文件内容的CRC32校验值.
+     *
+     * @param path 文件路径.
+     * @return 文件不存在或读取失败时返回-1.
+     */
+    public static long getFileChecksum(String path) {
+        if (!isFileExists(path)) {
+            return -1;
+        }
+        InputStream is = null;
+        try {
+            is = new FileInputStream(path);
+            CRC32 crc = new CRC32();
+            byte[] buffer = new byte[64 * 1024];
+            int byteCount;
+            while ((byteCount = is.read(buffer)) != -1) {
+                crc.update(buffer, 0, byteCount);
+            }
+            return crc.getValue();
+        } catch (IOException e) {
+            e.printStackTrace();
+            return -1;
+        } finally {
+            if (is != null) {
+                try {
+                    is.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
 }
@@ -12,6 +12,7 @@ import android.view.View;
 import skin.support.R;
 import skin.support.content.res.SkinCompatTypedArray;
 import skin.support.content.res.SkinCompatTypedValue;
+import skin.support.content.res.SkinCompatTypedValueBatch;
 
 /**
  * Created by ximsfei on 2017/1/10.
@@ -123,13 +124,19 @@ public class SkinCompatBackgroundHelper extends SkinCompatHelper {
     }
 
     public void applySkin() {
-        Drawable drawable = mBackgroundTypedValue.getDrawable();
-        if (drawable != null) {
-            ViewCompat.setBackground(mView, drawable);
-        }
-        ColorStateList tint = mBackgroundTypedValue.getTintList();
-        if (tint != null) {
-            setInternalBackgroundTint(tint);
+        // 背景与着色共用一次解析.
+        SkinCompatTypedValueBatch batch = SkinCompatTypedValueBatch.begin();
+        try {
+            Drawable drawable = batch.getDrawable(mBackgroundTypedValue);
+            if (drawable != null) {
+                ViewCompat.setBackground(mView, drawable);
+            }
+            ColorStateList tint = batch.getTintList(mBackgroundTypedValue);
+            if (tint != null) {
+                setInternalBackgroundTint(tint);
+            }
+        } finally {
+            batch.end();
         }
     }
 }
@@ -37,6 +37,7 @@ import java.util.WeakHashMap;
 
 import skin.support.R;
 import skin.support.content.res.SkinCompatResources;
+import skin.support.content.res.SkinCompatScope;
 
 import static android.support.v4.graphics.ColorUtils.compositeColors;
 import static skin.support.widget.SkinCompatThemeUtils.getDisabledThemeAttrColor;
@@ -152,9 +153,12 @@ public class SkinCompatDrawableManager {
             R.drawable.abc_btn_radio_material
     };
 
-    private WeakHashMap<Context, SparseArrayCompat<ColorStateList>> mTintLists;
+    /**
+     * 皮肤作用域可能在后台线程中加载布局, 以下缓存加锁访问.
+     */
+    private final WeakHashMap<Context, SparseArrayCompat<ColorStateList>> mTintLists = new WeakHashMap<>();
     private ArrayMap<String, InflateDelegate> mDelegates;
-    private SparseArrayCompat<String> mKnownDrawableIdTags;
+    private final SparseArrayCompat<String> mKnownDrawableIdTags = new SparseArrayCompat<>();
 
     private final Object mDrawableCacheLock = new Object();
     private final WeakHashMap<Context, LongSparseArray<WeakReference<Drawable.ConstantState>>>
@@ -201,16 +205,26 @@ public class SkinCompatDrawableManager {
         }
     }
 
+    /**
+     * 皮肤作用域可能在后台线程中使用, 不共用{@link #mTypedValue}.
+     */
+    private TypedValue obtainTypedValue() {
+        if (SkinCompatScope.current() != null) {
+            return new TypedValue();
+        }
+        if (mTypedValue == null) {
+            mTypedValue = new TypedValue();
+        }
+        return mTypedValue;
+    }
+
     private static long createCacheKey(TypedValue tv) {
         return (((long) tv.assetCookie) << 32) | tv.data;
     }
 
     private Drawable createDrawableIfNeeded(@NonNull Context context,
                                             @DrawableRes final int resId) {
-        if (mTypedValue == null) {
-            mTypedValue = new TypedValue();
-        }
-        final TypedValue tv = mTypedValue;
+        final TypedValue tv = obtainTypedValue();
         SkinCompatResources.getInstance().getValue(resId, tv, true);
         final long key = createCacheKey(tv);
 
@@ -285,27 +299,22 @@ public class SkinCompatDrawableManager {
 
     private Drawable loadDrawableFromDelegates(@NonNull Context context, @DrawableRes int resId) {
         if (mDelegates != null && !mDelegates.isEmpty()) {
-            if (mKnownDrawableIdTags != null) {
-                final String cachedTagName = mKnownDrawableIdTags.get(resId);
-                if (SKIP_DRAWABLE_TAG.equals(cachedTagName)
-                        || (cachedTagName != null && mDelegates.get(cachedTagName) == null)) {
-                    // If we don't have a delegate for the drawable tag, or we've been set to
-                    // skip it, fail fast and return null
-                    if (DEBUG) {
-                        Log.d(TAG, "[loadDrawableFromDelegates] Skipping drawable: "
-                                + context.getResources().getResourceName(resId));
-                    }
-                    return null;
+            final String cachedTagName;
+            synchronized (mKnownDrawableIdTags) {
+                cachedTagName = mKnownDrawableIdTags.get(resId);
+            }
+            if (SKIP_DRAWABLE_TAG.equals(cachedTagName)
+                    || (cachedTagName != null && mDelegates.get(cachedTagName) == null)) {
+                // If we don't have a delegate for the drawable tag, or we've been set to
+                // skip it, fail fast and return null
+                if (DEBUG) {
+                    Log.d(TAG, "[loadDrawableFromDelegates] Skipping drawable: "
+                            + context.getResources().getResourceName(resId));
                 }
-            } else {
-                // Create an id cache as we'll need one later
-                mKnownDrawableIdTags = new SparseArrayCompat<>();
+                return null;
             }
 
-            if (mTypedValue == null) {
-                mTypedValue = new TypedValue();
-            }
-            final TypedValue tv = mTypedValue;
+            final TypedValue tv = obtainTypedValue();
             SkinCompatResources.getInstance().getValue(resId, tv, true);
 
             final long key = createCacheKey(tv);
@@ -336,7 +345,9 @@ public class SkinCompatDrawableManager {
 
                     final String tagName = parser.getName();
                     // Add the tag name to the cache
-                    mKnownDrawableIdTags.append(resId, tagName);
+                    synchronized (mKnownDrawableIdTags) {
+                        mKnownDrawableIdTags.append(resId, tagName);
+                    }
 
                     // Now try and find a delegate for the tag name and inflate if found
                     final InflateDelegate delegate = mDelegates.get(tagName);
@@ -359,7 +370,9 @@ public class SkinCompatDrawableManager {
             if (dr == null) {
                 // If we reach here then the delegate inflation of the resource failed. Mark it as
                 // bad so we skip the id next time
-                mKnownDrawableIdTags.append(resId, SKIP_DRAWABLE_TAG);
+                synchronized (mKnownDrawableIdTags) {
+                    mKnownDrawableIdTags.append(resId, SKIP_DRAWABLE_TAG);
+                }
             }
             return dr;
         }
@@ -551,24 +564,22 @@ public class SkinCompatDrawableManager {
     }
 
     private ColorStateList getTintListFromCache(@NonNull Context context, @DrawableRes int resId) {
-        if (mTintLists != null) {
+        synchronized (mTintLists) {
             final SparseArrayCompat<ColorStateList> tints = mTintLists.get(context);
             return tints != null ? tints.get(resId) : null;
         }
-        return null;
     }
 
     private void addTintListToCache(@NonNull Context context, @DrawableRes int resId,
                                     @NonNull ColorStateList tintList) {
-        if (mTintLists == null) {
-            mTintLists = new WeakHashMap<>();
-        }
-        SparseArrayCompat<ColorStateList> themeTints = mTintLists.get(context);
-        if (themeTints == null) {
-            themeTints = new SparseArrayCompat<>();
-            mTintLists.put(context, themeTints);
+        synchronized (mTintLists) {
+            SparseArrayCompat<ColorStateList> themeTints = mTintLists.get(context);
+            if (themeTints == null) {
+                themeTints = new SparseArrayCompat<>();
+                mTintLists.put(context, themeTints);
+            }
+            themeTints.append(resId, tintList);
         }
-        themeTints.append(resId, tintList);
     }
 
     private ColorStateList createDefaultButtonColorStateList(@NonNull Context context) {
@@ -893,8 +904,10 @@ public class SkinCompatDrawableManager {
     }
 
     public void reset() {
-        mDrawableCaches.clear();
-        if (mTintLists != null) {
+        synchronized (mDrawableCacheLock) {
+            mDrawableCaches.clear();
+        }
+        synchronized (mTintLists) {
             mTintLists.clear();
         }
         COLOR_FILTER_CACHE.evictAll();
@@ -17,6 +17,7 @@ import java.lang.reflect.Method;
 import skin.support.R;
 import skin.support.content.res.SkinCompatTypedArray;
 import skin.support.content.res.SkinCompatTypedValue;
+import skin.support.content.res.SkinCompatTypedValueBatch;
 
 /**
  * Created by ximsfei on 2017/1/10.
@@ -39,6 +40,7 @@ public class SkinCompatTextHelper extends SkinCompatHelper {
     private SkinCompatTypedValue mSelectHandleCenterTypedValue = new SkinCompatTypedValue();
 
     private Object mEditor;
+    private SkinCompatTypedValueBatch mBatch;
 
     public static SkinCompatTextHelper create(SkinableTextView textView) {
         if (Build.VERSION.SDK_INT >= 17) {
@@ -114,9 +116,9 @@ public class SkinCompatTextHelper extends SkinCompatHelper {
                 boolean isAbove = (boolean) isAboveAnchorMethod.invoke(errorPopup);
 
                 if (isAbove) {
-                    ViewCompat.setBackground(textView, mErrorMessageAboveBackgroundTypedValue.getDrawable());
+                    ViewCompat.setBackground(textView, getDrawable(mErrorMessageAboveBackgroundTypedValue));
                 } else {
-                    ViewCompat.setBackground(textView, mErrorMessageBackgroundTypedValue.getDrawable());
+                    ViewCompat.setBackground(textView, getDrawable(mErrorMessageBackgroundTypedValue));
                 }
             } catch (Exception e) {
                 e.printStackTrace();
@@ -147,21 +149,21 @@ public class SkinCompatTextHelper extends SkinCompatHelper {
     }
 
     private void applyTextColorHighlightResource() {
-        int color = mTextColorHighlightTypedValue.getColor();
+        int color = getColor(mTextColorHighlightTypedValue);
         if (color != 0) {
             mView.setSkinHighlightColor(color);
         }
     }
 
     private void applyTextColorHintResource() {
-        ColorStateList colorStateList = mTextColorHintTypedValue.getColorStateList();
+        ColorStateList colorStateList = getColorStateList(mTextColorHintTypedValue);
         if (colorStateList != null) {
             mView.setSkinHintTextColor(colorStateList);
         }
     }
 
     private void applyTextColorResource() {
-        ColorStateList colorStateList = mTextColorTypedValue.getColorStateList();
+        ColorStateList colorStateList = getColorStateList(mTextColorTypedValue);
         if (colorStateList != null) {
             mView.setSkinTextColor(colorStateList);
         }
@@ -175,7 +177,7 @@ public class SkinCompatTextHelper extends SkinCompatHelper {
             cursorDrawableField.setAccessible(true);
 
             Drawable[] drawables = new Drawable[2];
-            drawables[0] = drawables[1] = mTextCursorDrawableTypedValue.getDrawable();
+            drawables[0] = drawables[1] = getDrawable(mTextCursorDrawableTypedValue);
             cursorDrawableField.set(editor, drawables);
 
             Method updateCursorsPositionsMethod = clazz.getDeclaredMethod("updateCursorsPositions");
@@ -197,11 +199,11 @@ public class SkinCompatTextHelper extends SkinCompatHelper {
             Field selectHandleCenterField = clazz.getDeclaredField("mSelectHandleCenter");
             selectHandleCenterField.setAccessible(true);
 
-            Drawable drawableLeft = mSelectHandleLeftTypedValue.getDrawable();
+            Drawable drawableLeft = getDrawable(mSelectHandleLeftTypedValue);
             selectHandleLeftField.set(editor, drawableLeft);
-            Drawable drawableRight = mSelectHandleRightTypedValue.getDrawable();
+            Drawable drawableRight = getDrawable(mSelectHandleRightTypedValue);
             selectHandleRightField.set(editor, drawableRight);
-            Drawable drawableCenter = mSelectHandleCenterTypedValue.getDrawable();
+            Drawable drawableCenter = getDrawable(mSelectHandleCenterTypedValue);
             selectHandleCenterField.set(editor, drawableCenter);
 
 
@@ -278,10 +280,10 @@ public class SkinCompatTextHelper extends SkinCompatHelper {
     }
 
     protected void applyCompoundDrawablesResource() {
-        Drawable drawableLeft = mDrawableLeftTypedValue.getDrawable();
-        Drawable drawableTop = mDrawableTopTypedValue.getDrawable();
-        Drawable drawableRight = mDrawableRightTypedValue.getDrawable();
-        Drawable drawableBottom = mDrawableBottomTypedValue.getDrawable();
+        Drawable drawableLeft = getDrawable(mDrawableLeftTypedValue);
+        Drawable drawableTop = getDrawable(mDrawableTopTypedValue);
+        Drawable drawableRight = getDrawable(mDrawableRightTypedValue);
+        Drawable drawableBottom = getDrawable(mDrawableBottomTypedValue);
 
         if (drawableLeft != null
                 || drawableTop != null
@@ -291,6 +293,18 @@ public class SkinCompatTextHelper extends SkinCompatHelper {
         }
     }
 
+    Drawable getDrawable(SkinCompatTypedValue value) {
+        return mBatch != null ? mBatch.getDrawable(value) : value.getDrawable();
+    }
+
+    private ColorStateList getColorStateList(SkinCompatTypedValue value) {
+        return mBatch != null ? mBatch.getColorStateList(value) : value.getColorStateList();
+    }
+
+    private int getColor(SkinCompatTypedValue value) {
+        return mBatch != null ? mBatch.getColor(value) : value.getColor();
+    }
+
     public SkinCompatTypedValue getTextColorTypedValue() {
         return mTextColorTypedValue;
     }
@@ -300,6 +314,17 @@ public class SkinCompatTextHelper extends SkinCompatHelper {
     }
 
     public void applySkin() {
+        // 同一styleable中的属性共用一次解析.
+        mBatch = SkinCompatTypedValueBatch.begin();
+        try {
+            onApplySkin();
+        } finally {
+            mBatch.end();
+            mBatch = null;
+        }
+    }
+
+    protected void onApplySkin() {
         applyTextAppearanceResource();
         applyTextColorResource();
         applyTextColorHintResource();
@@ -47,12 +47,12 @@ public class SkinCompatTextHelperV17 extends SkinCompatTextHelper {
 
     @Override
     protected void applyCompoundDrawablesRelativeResource() {
-        Drawable drawableLeft = mDrawableLeftTypedValue.getDrawable();
-        Drawable drawableTop = mDrawableTopTypedValue.getDrawable();
-        Drawable drawableRight = mDrawableRightTypedValue.getDrawable();
-        Drawable drawableBottom = mDrawableBottomTypedValue.getDrawable();
-        Drawable drawableStart = mDrawableStartTypedValue.getDrawable();
-        Drawable drawableEnd = mDrawableEndTypedValue.getDrawable();
+        Drawable drawableLeft = getDrawable(mDrawableLeftTypedValue);
+        Drawable drawableTop = getDrawable(mDrawableTopTypedValue);
+        Drawable drawableRight = getDrawable(mDrawableRightTypedValue);
+        Drawable drawableBottom = getDrawable(mDrawableBottomTypedValue);
+        Drawable drawableStart = getDrawable(mDrawableStartTypedValue);
+        Drawable drawableEnd = getDrawable(mDrawableEndTypedValue);
 
         if (drawableStart == null) {
             drawableStart = drawableLeft;
@@ -69,8 +69,8 @@ public class SkinCompatTextHelperV17 extends SkinCompatTextHelper {
     }
 
     @Override
-    public void applySkin() {
-        super.applySkin();
+    protected void onApplySkin() {
+        super.onApplySkin();
         applyCompoundDrawablesRelativeResource();
     }
 }
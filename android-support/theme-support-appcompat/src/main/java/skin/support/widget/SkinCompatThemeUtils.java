@@ -46,69 +46,31 @@ public class SkinCompatThemeUtils {
     }
 
     public static int getColorPrimary(Context context) {
-        int colorPrimary = 0;
-        TypedArray a = SkinCompatResources.getInstance()
-                .obtainStyledAttributes(context, APPCOMPAT_COLOR_PRIMARY_ATTRS);
-        if (a.hasValue(0)) {
-            colorPrimary = a.getColor(0, 0);
-        }
-        a.recycle();
-        return colorPrimary;
+        return getThemeAttrColor(context, android.support.v7.appcompat.R.attr.colorPrimary);
     }
 
     public static ColorStateList getColorAccentList(Context context) {
-        ColorStateList colorAccent = null;
-        TypedArray a = SkinCompatResources.getInstance()
-                .obtainStyledAttributes(context, APPCOMPAT_COLOR_ACCENT_ATTRS);
-        if (a.hasValue(0)) {
-            colorAccent = a.getColorStateList(0);
-        }
-        a.recycle();
-        return colorAccent;
+        return getThemeAttrColorStateList(context, android.support.v7.appcompat.R.attr.colorAccent);
     }
 
     public static int getColorAccent(Context context) {
-        int colorAccent = 0;
-        TypedArray a = SkinCompatResources.getInstance()
-                .obtainStyledAttributes(context, APPCOMPAT_COLOR_ACCENT_ATTRS);
-        if (a.hasValue(0)) {
-            colorAccent = a.getColor(0, 0);
-        }
-        a.recycle();
-        return colorAccent;
+        return getThemeAttrColor(context, android.support.v7.appcompat.R.attr.colorAccent);
     }
 
     public static int getStatusBarColor(Context context) {
         int color = 0;
-        TypedArray a;
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
-            a = SkinCompatResources.getInstance()
-                    .obtainStyledAttributes(context, new int[]{android.R.attr.statusBarColor});
-            if (a.hasValue(0)) {
-                color = a.getColor(0, 0);
-            }
-            a.recycle();
+            color = getThemeAttrColor(context, android.R.attr.statusBarColor);
         }
         if (color == 0) {
-            a = SkinCompatResources.getInstance()
-                    .obtainStyledAttributes(context, APPCOMPAT_COLOR_PRIMARY_ATTRS);
-            if (a.hasValue(0)) {
-                color = a.getColor(0, 0);
-            }
-            a.recycle();
+            color = getColorPrimary(context);
         }
         return color;
     }
 
     public static Drawable getWindowBackgroundDrawable(Context context) {
-        Drawable drawable = null;
-        TypedArray a = SkinCompatResources.getInstance()
-                .obtainStyledAttributes(context, new int[]{android.R.attr.windowBackground});
-        if (a.hasValue(0)) {
-            drawable = a.getDrawable(0);
-        }
-        a.recycle();
-        return drawable;
+        return SkinCompatResources.getInstance().newCompatTheme(context)
+                .getAttrDrawable(android.R.attr.windowBackground);
     }
 
     private static int getResId(Context context, int[] attrs) {
@@ -131,8 +93,6 @@ public class SkinCompatThemeUtils {
             -android.R.attr.state_pressed, -android.R.attr.state_focused};
     static final int[] EMPTY_STATE_SET = new int[0];
 
-    private static final int[] TEMP_ARRAY = new int[1];
-
     public static ColorStateList createDisabledStateList(int textColor, int disabledTextColor) {
         // Now create a new ColorStateList with the default color, and the new disabled
         // color
@@ -153,24 +113,18 @@ public class SkinCompatThemeUtils {
         return new ColorStateList(states, colors);
     }
 
+    /**
+     * 获取主题属性对应的颜色值, 同一皮肤下只解析一次.
+     */
     public static int getThemeAttrColor(Context context, int attr) {
-        TEMP_ARRAY[0] = attr;
-        TypedArray a = SkinCompatResources.getInstance().obtainStyledAttributes(context, TEMP_ARRAY);
-        try {
-            return a.getColor(0, 0);
-        } finally {
-            a.recycle();
-        }
+        return SkinCompatResources.getInstance().newCompatTheme(context).getAttrColor(attr);
     }
 
+    /**
+     * 获取主题属性对应的{@link ColorStateList}, 同一皮肤下只解析一次.
+     */
     public static ColorStateList getThemeAttrColorStateList(Context context, int attr) {
-        TEMP_ARRAY[0] = attr;
-        TypedArray a = SkinCompatResources.getInstance().obtainStyledAttributes(context, TEMP_ARRAY);
-        try {
-            return a.getColorStateList(0);
-        } finally {
-            a.recycle();
-        }
+        return SkinCompatResources.getInstance().newCompatTheme(context).getAttrColorStateList(attr);
     }
 
     public static int getDisabledThemeAttrColor(Context context, int attr) {